@@ -0,0 +1,27 @@
+load("//tools/bzl:maven_jar.bzl", "maven_jar")
+
+def external_plugin_deps():
+    # Only needed by the slack-integration_benchmarks target.
+    maven_jar(
+        name = "jmh-core",
+        artifact = "org.openjdk.jmh:jmh-core:1.37",
+        sha1 = "896f27e49105b35ea1964319c83d12082e7a79ef",
+    )
+
+    maven_jar(
+        name = "jmh-annprocess",
+        artifact = "org.openjdk.jmh:jmh-generator-annprocess:1.37",
+        sha1 = "da93888682df163144edf9b13d2b78e54166063a",
+    )
+
+    maven_jar(
+        name = "jopt-simple",
+        artifact = "net.sf.jopt-simple:jopt-simple:5.0.4",
+        sha1 = "4fdac2fbe92dfad86aa6e9301736f6b4342a3f5c",
+    )
+
+    maven_jar(
+        name = "commons-math3",
+        artifact = "org.apache.commons:commons-math3:3.6.1",
+        sha1 = "e4ba98f1d4b3c80ec46392f25e094a6a2e58fcbf",
+    )
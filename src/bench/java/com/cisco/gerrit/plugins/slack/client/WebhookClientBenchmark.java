@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.client;
+
+import static org.mockito.Mockito.mock;
+
+import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.cisco.gerrit.plugins.slack.util.Utf8Buffer;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the latency of publishing a message over the shared WebhookTransport, which keeps its
+ * connections alive, with the former approach of opening an HttpURLConnection for each message and
+ * disconnecting it afterwards. The stub webhook listens on the loopback interface without TLS, so
+ * the difference only accounts for the TCP handshakes, not for the TLS ones paid with Slack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WebhookClientBenchmark {
+  private static final byte[] OK = {'o', 'k'};
+
+  private HttpServer server;
+  private ExecutorService handlers;
+  private String webhookUrl;
+  private WebhookClient client;
+  private Utf8Buffer payload;
+
+  @Setup
+  public void setup() throws IOException {
+    // The stub writes the response headers and body apart, not to wait on delayed ACKs for both
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          try (InputStream in = exchange.getRequestBody()) {
+            in.readAllBytes();
+          }
+          exchange.sendResponseHeaders(200, OK.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(OK);
+          }
+        });
+    handlers = Executors.newCachedThreadPool();
+    server.setExecutor(handlers);
+    server.start();
+
+    webhookUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/services/hook";
+    client = new WebhookClient(mock(ProjectConfig.class), new WebhookTransport());
+    payload = Utf8Buffer.encode("{\"channel\": \"#general\", \"text\": \"Unit Tester proposed\"}");
+  }
+
+  @TearDown
+  public void teardown() {
+    server.stop(0);
+    handlers.shutdown();
+  }
+
+  @Benchmark
+  public boolean sharedTransport() {
+    return client.deliver(payload, webhookUrl).isSuccess();
+  }
+
+  @Benchmark
+  public boolean connectionPerMessage() throws IOException {
+    return ConnectionPerMessage.deliver(payload, webhookUrl);
+  }
+
+  /** The former way of publishing, kept here for comparison. */
+  private static final class ConnectionPerMessage {
+    static boolean deliver(Utf8Buffer message, String webhookUrl) throws IOException {
+      HttpURLConnection connection;
+      connection = (HttpURLConnection) new URL(webhookUrl).openConnection();
+      try {
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setRequestProperty("charset", "utf-8");
+        connection.setDoInput(true);
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(message.length());
+
+        try (OutputStream request = connection.getOutputStream()) {
+          request.write(message.array(), 0, message.length());
+        }
+
+        try (InputStream response = connection.getInputStream()) {
+          response.readAllBytes();
+        }
+
+        return connection.getResponseCode() == HttpURLConnection.HTTP_OK;
+      } finally {
+        connection.disconnect();
+      }
+    }
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.config;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.config.PluginConfig;
+import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.gerrit.server.project.NoSuchProjectException;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.jgit.lib.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the cost of creating a ProjectConfig, which resolves the project and server configs
+ * once, with the former approach of resolving the project config again for every key. Like Gerrit
+ * does, the mocked PluginConfigFactory hands out a new PluginConfig on each call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProjectConfigBenchmark {
+  private Project.NameKey projectNameKey = Project.nameKey("test-project");
+
+  private PluginConfigFactory configFactory;
+
+  @Setup
+  public void setup() throws NoSuchProjectException {
+    Config config;
+    config = new Config();
+    config.setBoolean("plugin", ProjectConfig.CONFIG_NAME, "enabled", true);
+    config.setString("plugin", ProjectConfig.CONFIG_NAME, "webhookurl", "https://webhook/");
+    config.setString("plugin", ProjectConfig.CONFIG_NAME, "channel", "test-channel");
+    config.setString("plugin", ProjectConfig.CONFIG_NAME, "ignore", "^WIP.*");
+    config.setString("plugin", ProjectConfig.CONFIG_NAME, "proxy-host", "proxy");
+
+    configFactory = mock(PluginConfigFactory.class);
+    when(configFactory.getFromProjectConfigWithInheritance(
+            projectNameKey, ProjectConfig.CONFIG_NAME))
+        .thenAnswer(
+            invocation -> PluginConfig.createFromGerritConfig(ProjectConfig.CONFIG_NAME, config));
+    when(configFactory.getFromGerritConfig(ProjectConfig.CONFIG_NAME))
+        .thenAnswer(
+            invocation -> PluginConfig.createFromGerritConfig(ProjectConfig.CONFIG_NAME, config));
+  }
+
+  @Benchmark
+  public ProjectConfig singlePass() {
+    return new ProjectConfig(configFactory, projectNameKey);
+  }
+
+  @Benchmark
+  public Object lookupPerKey() throws NoSuchProjectException {
+    return new LookupPerKey(configFactory, projectNameKey);
+  }
+
+  /** The former ProjectConfig constructor, resolving the plugin config for every key. */
+  private static class LookupPerKey {
+    boolean enabled;
+    String webhookUrl;
+    String channel;
+    String username;
+    String ignore;
+    boolean ignoreUnchangedPatchSet;
+    boolean ignoreWorkInProgressPatchSet;
+    boolean ignorePrivatePatchSet;
+    String ignoreCommentAuthor;
+    boolean publishOnPatchSetCreated;
+    boolean publishOnChangeMerged;
+    boolean publishOnCommentAdded;
+    boolean publishOnReviewerAdded;
+    boolean publishOnWipReady;
+    boolean publishOnPrivateToPublic;
+    String proxyHost;
+    int proxyPort;
+    String proxyUsername;
+    String proxyPassword;
+
+    LookupPerKey(PluginConfigFactory configFactory, Project.NameKey project)
+        throws NoSuchProjectException {
+      String name;
+      name = ProjectConfig.CONFIG_NAME;
+
+      enabled =
+          configFactory
+              .getFromProjectConfigWithInheritance(project, name)
+              .getBoolean("enabled", false);
+      webhookUrl =
+          configFactory
+              .getFromProjectConfigWithInheritance(project, name)
+              .getString("webhookurl", "");
+      channel =
+          configFactory
+              .getFromProjectConfigWithInheritance(project, name)
+              .getString("channel", "general");
+      username =
+          configFactory
+              .getFromProjectConfigWithInheritance(project, name)
+              .getString("username", "gerrit");
+      ignore =
+          configFactory.getFromProjectConfigWithInheritance(project, name).getString("ignore", "");
+      ignoreUnchangedPatchSet =
+          configFactory
+              .getFromProjectConfigWithInheritance(project, name)
+              .getBoolean("ignore-unchanged-patch-set", true);
+      ignoreWorkInProgressPatchSet =
+          configFactory
+              .getFromProjectConfigWithInheritance(project, name)
+              .getBoolean("ignore-wip-patch-set", true);
+      ignorePrivatePatchSet =
+          configFactory
+              .getFromProjectConfigWithInheritance(project, name)
+              .getBoolean("ignore-private-patch-set", true);
+      ignoreCommentAuthor =
+          configFactory
+              .getFromProjectConfigWithInheritance(project, name)
+              .getString("ignore-comment-author", "");
+      publishOnPatchSetCreated =
+          configFactory
+              .getFromProjectConfigWithInheritance(project, name)
+              .getBoolean("publish-on-patch-set-created", true);
+      publishOnChangeMerged =
+          configFactory
+              .getFromProjectConfigWithInheritance(project, name)
+              .getBoolean("publish-on-change-merged", true);
+      publishOnCommentAdded =
+          configFactory
+              .getFromProjectConfigWithInheritance(project, name)
+              .getBoolean("publish-on-comment-added", true);
+      publishOnReviewerAdded =
+          configFactory
+              .getFromProjectConfigWithInheritance(project, name)
+              .getBoolean("publish-on-reviewer-added", true);
+      publishOnWipReady =
+          configFactory
+              .getFromProjectConfigWithInheritance(project, name)
+              .getBoolean("publish-on-wip-ready", publishOnPatchSetCreated);
+      publishOnPrivateToPublic =
+          configFactory
+              .getFromProjectConfigWithInheritance(project, name)
+              .getBoolean("publish-on-private-to-public", publishOnPatchSetCreated);
+
+      proxyHost = configFactory.getFromGerritConfig(name).getString("proxy-host", null);
+      proxyPort = configFactory.getFromGerritConfig(name).getInt("proxy-port", 8080);
+      proxyUsername = configFactory.getFromGerritConfig(name).getString("proxy-username", null);
+      proxyPassword = configFactory.getFromGerritConfig(name).getString("proxy-password", null);
+    }
+  }
+}
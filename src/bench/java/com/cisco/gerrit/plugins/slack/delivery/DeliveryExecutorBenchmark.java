@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.delivery;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.cisco.gerrit.plugins.slack.config.ProjectConfigCache;
+import com.cisco.gerrit.plugins.slack.util.Utf8Buffer;
+import com.google.gerrit.metrics.DisabledMetricMaker;
+import com.google.gerrit.server.config.PluginConfig;
+import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.gerrit.server.git.WorkQueue;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the time needed to drain 1000 queued events with the platform thread pool and with
+ * virtual threads. The messages are published to a local server answering after a simulated Slack
+ * response time, through the same path as real deliveries, so the requests in flight are capped by
+ * the delivery-max-concurrency semaphore. The virtual thread mode needs a JDK 21 or later.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+// Without TCP_NODELAY, the local server's responses would wait for delayed ACKs
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class DeliveryExecutorBenchmark {
+  private static final int EVENTS = 1000;
+  private static final int CHANNELS = 100;
+
+  private static final byte[] MESSAGE = "{\"text\":\"message\"}".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] OK = "ok".getBytes(StandardCharsets.UTF_8);
+
+  /** Whether the deliveries run on the platform thread pool or on virtual threads. */
+  @Param({"platform", "virtual"})
+  public String mode;
+
+  /** The maximum number of requests in flight, and the thread pool size on platform threads. */
+  @Param({"8", "64"})
+  public int concurrency;
+
+  /** The simulated Slack response time in milliseconds. */
+  @Param({"20"})
+  public int latency;
+
+  private DeliveryExecutor deliveryExecutor;
+  private HttpServer slack;
+  private ExecutorService slackThreads;
+  private ProjectConfig[] configs;
+  private volatile CountDownLatch done;
+
+  @Setup
+  public void setup() throws IOException {
+    boolean virtual;
+    virtual = "virtual".equals(mode);
+    if (virtual && VirtualThreads.newExecutor("probe-") == null) {
+      throw new IllegalStateException("Virtual threads are not supported by this JVM");
+    }
+
+    // Stands in for Slack, answering each request after the simulated response time
+    slackThreads = Executors.newCachedThreadPool();
+    slack = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 2 * EVENTS);
+    slack.setExecutor(slackThreads);
+    slack.createContext(
+        "/",
+        exchange -> {
+          exchange.getRequestBody().readAllBytes();
+          try {
+            Thread.sleep(latency);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          exchange.sendResponseHeaders(200, OK.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(OK);
+          }
+          done.countDown();
+        });
+    slack.start();
+
+    configs = new ProjectConfig[CHANNELS];
+    for (int i = 0; i < CHANNELS; i++) {
+      configs[i] = mock(ProjectConfig.class);
+      when(configs[i].getWebhookUrl())
+          .thenReturn("http://127.0.0.1:" + slack.getAddress().getPort() + "/");
+      when(configs[i].getChannel()).thenReturn("channel" + i);
+    }
+
+    WorkQueue workQueue = mock(WorkQueue.class);
+    PluginConfigFactory configFactory = mock(PluginConfigFactory.class);
+    PluginConfig pluginConfig = mock(PluginConfig.class);
+
+    when(configFactory.getFromGerritConfig(ProjectConfig.CONFIG_NAME)).thenReturn(pluginConfig);
+    when(pluginConfig.getInt("delivery-threads", 2)).thenReturn(concurrency);
+    when(pluginConfig.getInt("delivery-queue-capacity", 1000)).thenReturn(2 * EVENTS);
+    when(pluginConfig.getBoolean("delivery-virtual-threads", false)).thenReturn(virtual);
+    when(pluginConfig.getInt("delivery-max-concurrency", 64)).thenReturn(concurrency);
+    when(pluginConfig.getInt("delivery-max-attempts", 10)).thenReturn(1);
+    when(pluginConfig.getLong("outbox-segment-size", 4 * 1024 * 1024)).thenReturn(4L * 1024 * 1024);
+    when(pluginConfig.getInt("outbox-sync-interval", 200)).thenReturn(200);
+    when(workQueue.createQueue(concurrency, DeliveryExecutor.QUEUE_NAME, true))
+        .thenReturn(new ScheduledThreadPoolExecutor(concurrency));
+    when(workQueue.createQueue(1, DeliveryExecutor.QUEUE_NAME + "-Timer", true))
+        .thenReturn(new ScheduledThreadPoolExecutor(1));
+
+    deliveryExecutor =
+        new DeliveryExecutor(
+            workQueue,
+            configFactory,
+            mock(ProjectConfigCache.class),
+            Files.createTempDirectory("slack-integration"),
+            new DisabledMetricMaker());
+    deliveryExecutor.start();
+  }
+
+  @TearDown
+  public void teardown() {
+    deliveryExecutor.stop();
+    slack.stop(0);
+    slackThreads.shutdownNow();
+  }
+
+  @Benchmark
+  public void deliverQueuedEvents() throws InterruptedException {
+    done = new CountDownLatch(EVENTS);
+
+    for (int i = 0; i < EVENTS; i++) {
+      deliveryExecutor.publish(
+          "test-project", configs[i % CHANNELS], () -> Utf8Buffer.wrap(MESSAGE));
+    }
+
+    done.await();
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the worst case of matching ignore patterns against commit messages. The corpus mixes the
+ * patterns project owners typically configure with ones backtracking catastrophically, against
+ * commit messages up to the size of a generated one. Unbounded, the pathological patterns run for
+ * minutes or overflow the stack on the larger messages, so only the typical ones are measured
+ * without a budget, as a baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BoundedMatcherBenchmark {
+  /** Commit messages of a few lines up to a large generated one, without any match. */
+  @State(Scope.Benchmark)
+  public static class Message {
+    @Param({"100", "10000", "1000000"})
+    public int length;
+
+    String message;
+
+    @Setup
+    public void setup() {
+      message = StringUtils.repeat("Generated line\n", length / 15 + 1).substring(0, length) + "!";
+    }
+  }
+
+  /** Patterns project owners typically configure. */
+  @State(Scope.Benchmark)
+  public static class Typical {
+    @Param({"^WIP.*", ".*\\[skip slack\\].*", "(?i).*do not merge.*"})
+    public String regex;
+
+    Pattern pattern;
+
+    @Setup
+    public void setup() {
+      pattern = Pattern.compile(regex, Pattern.DOTALL);
+    }
+  }
+
+  /** Patterns backtracking catastrophically or recursing once per character. */
+  @State(Scope.Benchmark)
+  public static class Pathological {
+    @Param({"(.*)*WIP", "(.*e){20}", "(\\w+\\s?)+$"})
+    public String regex;
+
+    Pattern pattern;
+
+    @Setup
+    public void setup() {
+      pattern = Pattern.compile(regex, Pattern.DOTALL);
+    }
+  }
+
+  @Benchmark
+  public boolean typicalUnbounded(Typical typical, Message message) {
+    return typical.pattern.matcher(message.message).matches();
+  }
+
+  @Benchmark
+  public boolean typicalBounded(Typical typical, Message message) {
+    return BoundedMatcher.matches(typical.pattern, message.message);
+  }
+
+  @Benchmark
+  public boolean pathologicalBounded(Pathological pathological, Message message) {
+    return BoundedMatcher.matches(pathological.pattern, message.message);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+import com.cisco.gerrit.plugins.slack.util.Utf8Buffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares rendering a message as attachments with rendering it as Block Kit blocks. Run it with
+ * the GC profiler, i.e. -prof gc, for the bytes allocated per message of each format, reported as
+ * gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MessageFormatBenchmark {
+  @Param({"ATTACHMENTS", "BLOCKS"})
+  private MessageFormat format;
+
+  private MessageTemplate template;
+
+  @Setup
+  public void setup() {
+    template = new MessageTemplate();
+    template.setFormat(format);
+    template.setChannel("general");
+    template.setName("Unit Tester");
+    template.setAction("proposed");
+    template.setProject("project");
+    template.setBranch("master");
+    template.setUrl("https://gerrit/c/project/+/1234");
+    template.setNumber(1234);
+    template.setTitle("Fix the \"flaky\" test");
+    template.setMessage("Fix the \"flaky\" test\n\nThe test depended on the order of a HashMap.");
+  }
+
+  @Benchmark
+  public int renderUtf8() {
+    Utf8Buffer buffer;
+    buffer = template.renderUtf8();
+
+    int length;
+    length = buffer.length();
+    buffer.release();
+
+    return length;
+  }
+
+  @Benchmark
+  public String render() {
+    return template.render();
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+import com.cisco.gerrit.plugins.slack.util.ResourceHelper;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares rendering a MessageTemplate from the parsed template with the former approach of loading
+ * the template resource and formatting it with String.format on every render.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MessageTemplateBenchmark {
+  private MessageTemplate template;
+
+  @Setup
+  public void setup() {
+    template = new MessageTemplate();
+    template.setChannel("general");
+    template.setName("Unit Tester");
+    template.setAction("proposed");
+    template.setProject("project");
+    template.setBranch("master");
+    template.setUrl("https://gerrit/c/project/+/1234");
+    template.setNumber(1234);
+    template.setTitle("Fix the \"flaky\" test");
+    template.setMessage("Fix the \"flaky\" test\n\nThe test depended on the order of a HashMap.");
+  }
+
+  @Benchmark
+  public String render() {
+    return template.render();
+  }
+
+  @Benchmark
+  public String loadAndFormat() throws IOException {
+    return String.format(
+        ResourceHelper.loadNamedResourceAsString(MessageTemplate.TEMPLATE_NAME),
+        template.getChannel(),
+        template.getName(),
+        template.getAction(),
+        template.getProject(),
+        template.getBranch(),
+        template.getUrl(),
+        template.getNumber(),
+        template.getTitle(),
+        template.getMessage(),
+        "good");
+  }
+}
@@ -17,97 +17,190 @@
 
 package com.cisco.gerrit.plugins.slack;
 
-import com.cisco.gerrit.plugins.slack.client.WebhookClient;
+import com.cisco.gerrit.plugins.slack.config.GlobalConfig;
 import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.cisco.gerrit.plugins.slack.config.ProjectConfigCache;
+import com.cisco.gerrit.plugins.slack.delivery.DeliveryExecutor;
+import com.cisco.gerrit.plugins.slack.message.CoalescedMessageGenerator;
 import com.cisco.gerrit.plugins.slack.message.MessageGenerator;
 import com.cisco.gerrit.plugins.slack.message.MessageGeneratorFactory;
-import com.google.gerrit.extensions.annotations.Listen;
-import com.google.gerrit.server.config.AllProjectsName;
+import com.cisco.gerrit.plugins.slack.util.Utf8Buffer;
+import com.google.gerrit.metrics.Counter0;
+import com.google.gerrit.metrics.Description;
+import com.google.gerrit.metrics.MetricMaker;
 import com.google.gerrit.server.config.PluginConfigFactory;
-import com.google.gerrit.server.events.ChangeMergedEvent;
-import com.google.gerrit.server.events.CommentAddedEvent;
+import com.google.gerrit.server.events.ChangeEvent;
 import com.google.gerrit.server.events.Event;
 import com.google.gerrit.server.events.EventListener;
-import com.google.gerrit.server.events.PatchSetCreatedEvent;
-import com.google.gerrit.server.events.ReviewerAddedEvent;
-import com.google.gerrit.server.events.WorkInProgressStateChangedEvent;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Listens for Gerrit change events and publishes messages to Slack. */
-@Listen
+/**
+ * Listens for Gerrit change events and publishes messages to Slack. Only the filtering and the
+ * project config lookup happen on Gerrit's event dispatch thread, the message generation and the
+ * actual publishing are handed off to the DeliveryExecutor, which journals each message as soon as
+ * it is generated.
+ *
+ * <p>Every Gerrit event reaches this listener, most of them being ref updates and replication
+ * events the plugin doesn't handle. Those are rejected by a single cached lookup of their class,
+ * without allocating anything, and counted by the events/rejected metric.
+ *
+ * <p>Optionally the events about the same change are held for a short window and published as a
+ * single message, since a single push usually creates a patch set, adds a few reviewers and
+ * comments on the change within a split second.
+ */
 @Singleton
 public class PublishEventListener implements EventListener {
   private static final Logger LOGGER = LoggerFactory.getLogger(PublishEventListener.class);
 
-  private final PluginConfigFactory configFactory;
-  private final AllProjectsName allProjectsName;
+  private final ProjectConfigCache projectConfigCache;
+  private final DeliveryExecutor deliveryExecutor;
+  private final Counter0 rejectedEvents;
+  private final Counter0 coalescedEvents;
+  private final int coalesceWindow;
+  private final ConcurrentMap<String, CoalescedMessageGenerator> coalescing;
 
   @Inject
-  PublishEventListener(PluginConfigFactory configFactory, AllProjectsName allProjectsName) {
-    this.configFactory = configFactory;
-    this.allProjectsName = allProjectsName;
+  PublishEventListener(
+      PluginConfigFactory configFactory,
+      ProjectConfigCache projectConfigCache,
+      DeliveryExecutor deliveryExecutor,
+      MetricMaker metricMaker) {
+    this.projectConfigCache = projectConfigCache;
+    this.deliveryExecutor = deliveryExecutor;
+    this.rejectedEvents =
+        metricMaker.newCounter(
+            "events/rejected",
+            new Description("Events ignored because no message is published for their type")
+                .setRate()
+                .setUnit("events"));
+    this.coalescedEvents =
+        metricMaker.newCounter(
+            "events/coalesced",
+            new Description("Events merged into the message of an earlier event about the change")
+                .setRate()
+                .setUnit("events"));
+    this.coalesceWindow = new GlobalConfig(configFactory).getDeliveryCoalesceWindow();
+    this.coalescing = new ConcurrentHashMap<>();
   }
 
   @Override
   public void onEvent(Event event) {
+    if (!MessageGeneratorFactory.isSupported(event)) {
+      rejectedEvents.increment();
+      LOGGER.debug("Event {} not currently supported", event);
+      return;
+    }
+
     try {
+      // Only the cheap event fields are used up to here, the change details are loaded lazily by
+      // the message generator once the delivery runs.
       ProjectConfig config;
-      MessageGenerator messageGenerator;
-
-      if (event instanceof PatchSetCreatedEvent) {
-        PatchSetCreatedEvent patchSetCreatedEvent;
-        patchSetCreatedEvent = (PatchSetCreatedEvent) event;
+      config = projectConfigCache.get(((ChangeEvent) event).getProjectNameKey());
 
-        config = new ProjectConfig(configFactory, patchSetCreatedEvent.change.get().project);
-
-        messageGenerator = MessageGeneratorFactory.newInstance(patchSetCreatedEvent, config);
-      } else if (event instanceof ChangeMergedEvent) {
-        ChangeMergedEvent changeMergedEvent;
-        changeMergedEvent = (ChangeMergedEvent) event;
-
-        config = new ProjectConfig(configFactory, changeMergedEvent.change.get().project);
-
-        messageGenerator = MessageGeneratorFactory.newInstance(changeMergedEvent, config);
-      } else if (event instanceof CommentAddedEvent) {
-        CommentAddedEvent commentAddedEvent;
-        commentAddedEvent = (CommentAddedEvent) event;
+      if (!MessageGeneratorFactory.shouldPublish(event, config)) {
+        return;
+      }
 
-        config = new ProjectConfig(configFactory, commentAddedEvent.change.get().project);
+      MessageGenerator messageGenerator;
+      messageGenerator = MessageGeneratorFactory.newInstance(event, config);
 
-        messageGenerator = MessageGeneratorFactory.newInstance(commentAddedEvent, config);
-      } else if (event instanceof ReviewerAddedEvent) {
-        ReviewerAddedEvent reviewerAddedEvent;
-        reviewerAddedEvent = (ReviewerAddedEvent) event;
+      if (coalesceWindow > 0 && ((ChangeEvent) event).changeKey != null) {
+        coalesce((ChangeEvent) event, config, messageGenerator);
+        return;
+      }
 
-        config = new ProjectConfig(configFactory, reviewerAddedEvent.change.get().project);
+      // Deliveries are queued per webhook URL and channel to keep them in order, so the
+      // config has to be resolved before queuing.
+      deliveryExecutor.publish(
+          ((ChangeEvent) event).getProjectNameKey().get(),
+          config,
+          new RenderTask(event, config, messageGenerator));
+    } catch (Throwable e) {
+      LOGGER.error("Event " + event + " processing failed", e);
+    }
+  }
 
-        messageGenerator = MessageGeneratorFactory.newInstance(reviewerAddedEvent, config);
-      } else if (event instanceof WorkInProgressStateChangedEvent) {
-        WorkInProgressStateChangedEvent wipStateChangedEvent;
-        wipStateChangedEvent = (WorkInProgressStateChangedEvent) event;
+  /**
+   * Holds the message of an event until the coalescing window of its change closes, merging it with
+   * the messages of the other events about the change received in the meantime.
+   */
+  private void coalesce(
+      ChangeEvent event, ProjectConfig config, MessageGenerator messageGenerator) {
+    // A Change-Id is only unique per project and branch, cherry-picks of a change share it. The
+    // branch identifies the change as well as its number would, without loading the change details
+    // on the event thread.
+    String key;
+    key =
+        config.getWebhookUrl()
+            + " "
+            + config.getChannel()
+            + " "
+            + event.getProjectNameKey()
+            + " "
+            + event.refName
+            + " "
+            + event.changeKey;
+
+    coalescing.compute(
+        key,
+        (k, pending) -> {
+          if (pending == null) {
+            pending = new CoalescedMessageGenerator(config);
+            deliveryExecutor.runLater(() -> flush(k, event, config), coalesceWindow);
+          } else {
+            coalescedEvents.increment();
+          }
+          pending.add(messageGenerator);
+          return pending;
+        });
+  }
 
-        config = new ProjectConfig(configFactory, wipStateChangedEvent.change.get().project);
+  /** Queues the merged message of a change once its coalescing window closed. */
+  private void flush(String key, Event event, ProjectConfig config) {
+    CoalescedMessageGenerator pending;
+    pending = coalescing.remove(key);
 
-        messageGenerator = MessageGeneratorFactory.newInstance(wipStateChangedEvent, config);
-      } else {
-        LOGGER.debug("Event " + event + " not currently supported");
+    if (pending != null) {
+      deliveryExecutor.publish(
+          ((ChangeEvent) event).getProjectNameKey().get(),
+          config,
+          new RenderTask(event, config, pending));
+    }
+  }
 
-        config = new ProjectConfig(configFactory, allProjectsName.get());
+  /**
+   * Generates the message of an event, described by name in the show-queue output. Run by the
+   * DeliveryExecutor before journaling and publishing the message.
+   */
+  private static class RenderTask implements Callable<Utf8Buffer> {
+    private final Event event;
+    private final ProjectConfig config;
+    private final MessageGenerator messageGenerator;
+
+    RenderTask(Event event, ProjectConfig config, MessageGenerator messageGenerator) {
+      this.event = event;
+      this.config = config;
+      this.messageGenerator = messageGenerator;
+    }
 
-        messageGenerator = MessageGeneratorFactory.newInstance(event);
+    @Override
+    public Utf8Buffer call() {
+      if (!messageGenerator.shouldPublish()) {
+        return null;
       }
 
-      if (messageGenerator.shouldPublish()) {
-        WebhookClient client;
-        client = new WebhookClient(config);
+      return messageGenerator.generateUtf8();
+    }
 
-        client.publish(messageGenerator.generate(), config.getWebhookUrl());
-      }
-    } catch (Throwable e) {
-      LOGGER.error("Event " + event + " processing failed", e);
+    @Override
+    public String toString() {
+      return "slack-integration publish " + event.getType() + " to #" + config.getChannel();
     }
   }
 }
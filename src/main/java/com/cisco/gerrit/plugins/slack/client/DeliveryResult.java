@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.client;
+
+/**
+ * The outcome of publishing a message to Slack. Failures are either transient, when publishing the
+ * same message again later may succeed, or permanent.
+ */
+public final class DeliveryResult {
+  private static final DeliveryResult SUCCESS = new DeliveryResult(200, "ok", false, -1);
+
+  private final int status;
+  private final String error;
+  private final boolean retryable;
+  private final long retryAfter;
+
+  private DeliveryResult(int status, String error, boolean retryable, long retryAfter) {
+    this.status = status;
+    this.error = error;
+    this.retryable = retryable;
+    this.retryAfter = retryAfter;
+  }
+
+  /** Returns the result of a message accepted by Slack. */
+  public static DeliveryResult success() {
+    return SUCCESS;
+  }
+
+  /**
+   * Creates the result of a failure that may go away when retrying.
+   *
+   * @param status The HTTP status code, 0 if no response was received.
+   * @param error The error returned by Slack, or a description of the I/O failure.
+   * @param retryAfter The delay in milliseconds Slack asked to wait before retrying, -1 if none.
+   * @return The result.
+   */
+  public static DeliveryResult transientFailure(int status, String error, long retryAfter) {
+    return new DeliveryResult(status, error, true, retryAfter);
+  }
+
+  /**
+   * Creates the result of a failure that retrying won't fix.
+   *
+   * @param status The HTTP status code.
+   * @param error The error returned by Slack, e.g. channel_not_found.
+   * @return The result.
+   */
+  public static DeliveryResult permanentFailure(int status, String error) {
+    return new DeliveryResult(status, error, false, -1);
+  }
+
+  public boolean isSuccess() {
+    return this == SUCCESS;
+  }
+
+  public boolean isRetryable() {
+    return retryable;
+  }
+
+  public int getStatus() {
+    return status;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public long getRetryAfter() {
+    return retryAfter;
+  }
+
+  @Override
+  public String toString() {
+    return isSuccess() ? "ok" : "[" + status + "] " + error;
+  }
+}
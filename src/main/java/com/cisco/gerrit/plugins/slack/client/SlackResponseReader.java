@@ -0,0 +1,257 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.client;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Reads Slack responses, "ok" or an error code such as invalid_payload, into a small buffer with a
+ * hard cap on the bytes kept, so that an unexpectedly large error page neither piles up in memory
+ * nor in the logs. The known codes are returned as constants, so that reading them doesn't allocate
+ * a String either.
+ *
+ * <p>The buffers are pooled rather than per thread, since the callbacks of a response may run on
+ * different threads of the client, and go back to the pool as soon as the response is parsed.
+ */
+final class SlackResponseReader implements HttpResponse.BodySubscriber<String> {
+  /** The number of bytes of a response that are kept. */
+  static final int MAX_BYTES = 128;
+
+  /**
+   * The number of bytes of a response that are read past MAX_BYTES, so that its connection can be
+   * reused, before giving up on it and closing the connection instead.
+   */
+  static final int MAX_DISCARDED_BYTES = 64 * 1024;
+
+  /** The number of buffers kept for reuse, enough for the responses read at the same time. */
+  static final int POOL_CAPACITY = 16;
+
+  /** Appended to a response that didn't fit in the buffer. */
+  static final String TRUNCATED = "\u2026";
+
+  /** The response of a successful request. */
+  static final String OK = "ok";
+
+  /** The response of a request rejected by the rate limit of the webhook. */
+  static final String RATE_LIMITED = "rate_limited";
+
+  /** The codes Slack answers incoming webhook requests with. */
+  private static final String[] CODES = {
+    OK,
+    "invalid_payload",
+    "invalid_token",
+    "no_text",
+    "no_service",
+    "no_service_id",
+    "no_team",
+    "team_disabled",
+    "channel_not_found",
+    "channel_is_archived",
+    "action_prohibited",
+    "posting_to_general_channel_denied",
+    "too_many_attachments",
+    "user_not_found",
+    RATE_LIMITED,
+    "invalid_blocks",
+    "invalid_blocks_format",
+    "invalid_attachments",
+    "missing_text_or_fallback"
+  };
+
+  private static final byte[][] CODE_BYTES = toBytes(CODES);
+
+  private static final ArrayBlockingQueue<byte[]> POOL = new ArrayBlockingQueue<>(POOL_CAPACITY);
+
+  /** Creates a reader for each response. */
+  static final HttpResponse.BodyHandler<String> HANDLER = info -> new SlackResponseReader();
+
+  private final CompletableFuture<String> body;
+  private byte[] buffer;
+  private int length;
+  private long discarded;
+  private Flow.Subscription subscription;
+
+  private SlackResponseReader() {
+    this.body = new CompletableFuture<>();
+  }
+
+  @Override
+  public CompletionStage<String> getBody() {
+    return body;
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    this.subscription = subscription;
+    subscription.request(Long.MAX_VALUE);
+  }
+
+  @Override
+  public void onNext(List<ByteBuffer> items) {
+    if (body.isDone()) {
+      return;
+    }
+
+    if (buffer == null) {
+      buffer = POOL.poll();
+      if (buffer == null) {
+        buffer = new byte[MAX_BYTES];
+      }
+    }
+
+    for (ByteBuffer item : items) {
+      int count;
+      count = Math.min(item.remaining(), buffer.length - length);
+      item.get(buffer, length, count);
+      length += count;
+      discarded += item.remaining();
+    }
+
+    if (discarded > MAX_DISCARDED_BYTES) {
+      subscription.cancel();
+      complete(true);
+    }
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    release();
+    body.completeExceptionally(throwable);
+  }
+
+  @Override
+  public void onComplete() {
+    complete(discarded > 0);
+  }
+
+  private void complete(boolean truncated) {
+    String response;
+    response = buffer == null ? "" : parse(buffer, length, truncated);
+    release();
+    body.complete(response);
+  }
+
+  /** Returns the buffer to the pool, once its bytes have been parsed. */
+  private void release() {
+    if (buffer != null) {
+      POOL.offer(buffer);
+      buffer = null;
+    }
+  }
+
+  /** Returns the number of buffers currently in the pool. */
+  static int pooled() {
+    return POOL.size();
+  }
+
+  /**
+   * Parses a response, trimmed of the surrounding whitespace.
+   *
+   * @param bytes The bytes read of the response.
+   * @param length The number of bytes read.
+   * @param truncated Whether the response was longer than the bytes read.
+   * @return The constant of a known Slack code, or the response as text.
+   */
+  static String parse(byte[] bytes, int length, boolean truncated) {
+    int start;
+    start = 0;
+    while (start < length && isWhitespace(bytes[start])) {
+      start++;
+    }
+
+    int end;
+    end = length;
+    while (end > start && isWhitespace(bytes[end - 1])) {
+      end--;
+    }
+
+    if (truncated) {
+      end = codePointBoundary(bytes, start, end);
+    } else {
+      for (int c = 0; c < CODE_BYTES.length; c++) {
+        if (matches(CODE_BYTES[c], bytes, start, end)) {
+          return CODES[c];
+        }
+      }
+    }
+
+    String text;
+    text = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+
+    return truncated ? text + TRUNCATED : text;
+  }
+
+  /**
+   * Drops the bytes of a UTF-8 sequence cut by the end of the buffer.
+   *
+   * @return The end of the last complete code point.
+   */
+  private static int codePointBoundary(byte[] bytes, int start, int end) {
+    int lead;
+    lead = end;
+    while (lead > start && (bytes[lead - 1] & 0xC0) == 0x80) {
+      lead--;
+    }
+    if (lead == start || (bytes[lead - 1] & 0x80) == 0) {
+      return end;
+    }
+
+    int first;
+    first = bytes[lead - 1] & 0xFF;
+
+    int size;
+    size = first >= 0xF0 ? 4 : first >= 0xE0 ? 3 : 2;
+
+    return end - (lead - 1) < size ? lead - 1 : end;
+  }
+
+  private static boolean matches(byte[] code, byte[] bytes, int start, int end) {
+    if (code.length != end - start) {
+      return false;
+    }
+
+    for (int i = 0; i < code.length; i++) {
+      if (code[i] != bytes[start + i]) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+  }
+
+  private static byte[][] toBytes(String[] codes) {
+    byte[][] result;
+    result = new byte[codes.length][];
+    for (int c = 0; c < codes.length; c++) {
+      result[c] = codes[c].getBytes(StandardCharsets.US_ASCII);
+    }
+
+    return result;
+  }
+}
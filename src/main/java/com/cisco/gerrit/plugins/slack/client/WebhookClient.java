@@ -18,19 +18,16 @@
 package com.cisco.gerrit.plugins.slack.client;
 
 import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
-import java.io.DataOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.net.Authenticator;
+import com.cisco.gerrit.plugins.slack.util.Utf8Buffer;
 import java.net.HttpURLConnection;
-import java.net.InetSocketAddress;
-import java.net.MalformedURLException;
-import java.net.PasswordAuthentication;
-import java.net.Proxy;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
-import java.util.Scanner;
-import org.apache.commons.lang3.StringUtils;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,14 +42,26 @@ public class WebhookClient {
   private static final Logger LOGGER = LoggerFactory.getLogger(WebhookClient.class);
 
   private ProjectConfig config;
+  private WebhookTransport transport;
 
   /**
-   * Creates a new WebhookClient.
+   * Creates a new WebhookClient with a transport of its own, for publishing a few messages at most.
    *
    * @param config The ProjectConfig instance to use.
    */
   public WebhookClient(ProjectConfig config) {
+    this(config, new WebhookTransport());
+  }
+
+  /**
+   * Creates a new WebhookClient publishing over a shared transport, reusing its connections.
+   *
+   * @param config The ProjectConfig instance to use.
+   * @param transport The transport to publish over.
+   */
+  public WebhookClient(ProjectConfig config, WebhookTransport transport) {
     this.config = config;
+    this.transport = transport;
   }
 
   /**
@@ -63,135 +72,224 @@ public class WebhookClient {
    * @return true, if successful; otherwise false
    */
   public boolean publish(String message, String webhookUrl) {
+    DeliveryResult result;
+    result = deliver(message, webhookUrl);
+
+    if (!result.isSuccess()) {
+      LOGGER.error("Unexpected response: " + result + ".");
+    }
+
+    return result.isSuccess();
+  }
+
+  /**
+   * Publish a message to the provided Slack webhook URL, telling apart the failures that may be
+   * retried from those that may not.
+   *
+   * @param message The message to publish.
+   * @param webhookUrl The web hook URL to publish to.
+   * @return The result of the request.
+   */
+  public DeliveryResult deliver(String message, String webhookUrl) {
     if (message == null || message.equals("")) {
       throw new IllegalArgumentException("message cannot be null or empty");
     }
 
-    if (webhookUrl == null || webhookUrl.equals("")) {
-      throw new IllegalArgumentException("webhookUrl cannot be null or empty");
+    Utf8Buffer payload;
+    payload = Utf8Buffer.encode(message);
+    try {
+      return deliver(payload, webhookUrl);
+    } finally {
+      payload.release();
     }
+  }
 
-    boolean result;
-    result = false;
-
-    String response;
-    response = postRequest(message, webhookUrl);
+  /**
+   * Publish an already encoded message to the provided Slack webhook URL. The message is sent as
+   * is, with its length known up front, and isn't released.
+   *
+   * @param message The UTF-8 encoded message to publish.
+   * @param webhookUrl The web hook URL to publish to.
+   * @return The result of the request.
+   */
+  public DeliveryResult deliver(Utf8Buffer message, String webhookUrl) {
+    return publishAsync(message, webhookUrl).toCompletableFuture().join();
+  }
 
-    if ("ok".equals(response)) {
-      result = true;
-    } else {
-      LOGGER.error("Unexpected response: [" + response + "].");
+  /**
+   * Publish a message to the provided Slack webhook URL without waiting for the response, so that
+   * no thread is held while the request is in flight.
+   *
+   * @param message The message to publish.
+   * @param webhookUrl The web hook URL to publish to.
+   * @return The result of the request, completed once Slack responded.
+   */
+  public CompletionStage<DeliveryResult> publishAsync(String message, String webhookUrl) {
+    if (message == null || message.equals("")) {
+      throw new IllegalArgumentException("message cannot be null or empty");
     }
 
-    return result;
+    Utf8Buffer payload;
+    payload = Utf8Buffer.encode(message);
+
+    return publishAsync(payload, webhookUrl).whenComplete((result, error) -> payload.release());
   }
 
   /**
-   * Initiates an HTTP POST to the provided Webhook URL.
+   * Publish an already encoded message to the provided Slack webhook URL without waiting for the
+   * response. The message must not be released before the returned stage completes. If the request
+   * deadline passes first, the message is detached from the pool, so that it can be released even
+   * though the abandoned request may still be reading it.
    *
-   * @param message The message payload.
-   * @param webhookUrl The URL to post to.
-   * @return The response payload from Slack.
+   * @param message The UTF-8 encoded message to publish.
+   * @param webhookUrl The web hook URL to publish to.
+   * @return The result of the request, completed once Slack responded. Transient failures complete
+   *     it normally, with a retryable result, rather than exceptionally.
    */
-  private String postRequest(String message, String webhookUrl) {
-    String response;
-
-    HttpURLConnection connection;
-    connection = null;
+  public CompletionStage<DeliveryResult> publishAsync(Utf8Buffer message, String webhookUrl) {
+    HttpRequest request;
     try {
-      connection = openConnection(webhookUrl);
-      try {
-        connection.setRequestMethod("POST");
-        connection.setRequestProperty("Content-Type", "application/json");
-        connection.setRequestProperty("charset", "utf-8");
-
-        connection.setDoInput(true);
-        connection.setDoOutput(true);
-
-        try (DataOutputStream request = new DataOutputStream(connection.getOutputStream())) {
-          request.write(message.getBytes(StandardCharsets.UTF_8));
-          request.flush();
-        }
-      } catch (IOException e) {
-        throw new RuntimeException("Error posting message to Slack: [" + e.getMessage() + "].", e);
-      }
+      request = newRequest(message, webhookUrl);
+    } catch (InvalidWebhookUrlException e) {
+      return CompletableFuture.completedFuture(DeliveryResult.permanentFailure(0, e.getMessage()));
+    }
 
-      response = getResponse(connection);
-    } finally {
-      if (connection != null) {
-        connection.disconnect();
-      }
+    CompletableFuture<HttpResponse<String>> exchange;
+    exchange = transport.getClient(config).sendAsync(request, SlackResponseReader.HANDLER);
+
+    // The timer of the deadline also bounds reading the response payload. It runs on a copy, since
+    // timing out completes the future without cancelling the exchange.
+    CompletableFuture<HttpResponse<String>> response;
+    response = exchange;
+    if (config.getRequestDeadline() > 0) {
+      response = exchange.copy().orTimeout(config.getRequestDeadline(), TimeUnit.MILLISECONDS);
     }
 
-    return response;
+    return response.handle(
+        (result, error) -> {
+          if (error == null) {
+            return toResult(result);
+          }
+
+          Throwable cause;
+          cause = error instanceof CompletionException ? error.getCause() : error;
+
+          if (cause instanceof TimeoutException) {
+            // The client may keep the exchange going until its read timeout despite the cancel,
+            // still sending the message, whose array then mustn't go back to the pool.
+            exchange.cancel(true);
+            message.detach();
+
+            return DeliveryResult.transientFailure(
+                0, "Request deadline of " + config.getRequestDeadline() + " ms exceeded", -1);
+          }
+
+          // Connect and read timeouts, refused or reset connections and the like
+          return DeliveryResult.transientFailure(0, cause.toString(), -1);
+        });
   }
 
   /**
-   * Opens a connection to the provided Webhook URL.
+   * Builds the request publishing a message.
    *
-   * @param webhookUrl The Webhook URL to open a connection to.
-   * @return The open connection to the provided Webhook URL.
+   * @param message The UTF-8 encoded message to publish.
+   * @param webhookUrl The web hook URL to publish to.
+   * @return The request.
+   * @throws InvalidWebhookUrlException If the webhook URL can't be parsed.
    */
-  private HttpURLConnection openConnection(String webhookUrl) {
+  private HttpRequest newRequest(Utf8Buffer message, String webhookUrl)
+      throws InvalidWebhookUrlException {
+    if (message == null || message.length() == 0) {
+      throw new IllegalArgumentException("message cannot be null or empty");
+    }
+
+    if (webhookUrl == null || webhookUrl.equals("")) {
+      throw new IllegalArgumentException("webhookUrl cannot be null or empty");
+    }
+
     try {
-      HttpURLConnection connection;
-      if (StringUtils.isNotBlank(config.getProxyHost())) {
-        LOGGER.info("Connecting via proxy");
-        if (StringUtils.isNotBlank(config.getProxyUsername())) {
-          Authenticator authenticator;
-          authenticator =
-              new Authenticator() {
-                @Override
-                public PasswordAuthentication getPasswordAuthentication() {
-                  return (new PasswordAuthentication(
-                      config.getProxyUsername(), config.getProxyPassword().toCharArray()));
-                }
-              };
-          Authenticator.setDefault(authenticator);
-        }
-
-        Proxy proxy;
-        proxy =
-            new Proxy(
-                Proxy.Type.HTTP,
-                new InetSocketAddress(config.getProxyHost(), config.getProxyPort()));
-
-        connection = (HttpURLConnection) new URL(webhookUrl).openConnection(proxy);
-      } else {
-        LOGGER.info("Connecting directly");
-        connection = (HttpURLConnection) new URL(webhookUrl).openConnection();
+      HttpRequest.Builder builder;
+      builder =
+          HttpRequest.newBuilder(transport.getUri(webhookUrl))
+              .header("Content-Type", "application/json; charset=utf-8")
+              .POST(HttpRequest.BodyPublishers.ofByteArray(message.array(), 0, message.length()));
+
+      // Bounds the wait for the response once the request is on its way
+      if (config.getReadTimeout() > 0) {
+        builder.timeout(Duration.ofMillis(config.getReadTimeout()));
       }
-      return connection;
-    } catch (MalformedURLException e) {
-      throw new RuntimeException("Unable to create webhook URL: " + webhookUrl, e);
-    } catch (IOException e) {
-      throw new RuntimeException(
-          "Error opening connection to Slack URL: [" + e.getMessage() + "].", e);
+
+      return builder.build();
+    } catch (IllegalArgumentException e) {
+      throw new InvalidWebhookUrlException("Invalid webhook URL: " + e.getMessage());
     }
   }
 
-  private InputStream getResponseStream(HttpURLConnection connection) {
-    try {
-      return connection.getInputStream();
-    } catch (IOException e) {
-      return connection.getErrorStream();
+  /**
+   * Gets the result of a request from its response.
+   *
+   * @param response The response.
+   * @return The result of the request.
+   */
+  private static DeliveryResult toResult(HttpResponse<String> response) {
+    return classify(
+        response.statusCode(),
+        response.body(),
+        response.headers().firstValue("Retry-After").orElse(null));
+  }
+
+  /**
+   * Classifies a Slack response. Rate limiting and server errors are worth retrying, while other
+   * errors such as invalid_payload or channel_not_found will keep failing.
+   *
+   * @param status The HTTP status code.
+   * @param response The response payload, holding the error code on failures.
+   * @param retryAfter The Retry-After header, in seconds.
+   * @return The result of the request.
+   */
+  static DeliveryResult classify(int status, String response, String retryAfter) {
+    if (status == HttpURLConnection.HTTP_OK && SlackResponseReader.OK.equals(response)) {
+      return DeliveryResult.success();
     }
+
+    if (status == 429
+        || status == HttpURLConnection.HTTP_CLIENT_TIMEOUT
+        || SlackResponseReader.RATE_LIMITED.equals(response)) {
+      return DeliveryResult.transientFailure(status, response, parseRetryAfter(retryAfter));
+    }
+
+    if (status >= HttpURLConnection.HTTP_INTERNAL_ERROR) {
+      return DeliveryResult.transientFailure(status, response, -1);
+    }
+
+    return DeliveryResult.permanentFailure(status, response);
   }
 
   /**
-   * Gets the response payload.
+   * Parses a Retry-After header given in seconds, as sent by Slack.
    *
-   * @param connection The connection.
-   * @return The string representation of the response.
+   * @param retryAfter The header value, may be null.
+   * @return The delay in milliseconds, -1 if there is none.
    */
-  private String getResponse(HttpURLConnection connection) {
-    try (InputStream responseStream = getResponseStream(connection);
-        Scanner scanner = new Scanner(responseStream, StandardCharsets.UTF_8.name())) {
-      scanner.useDelimiter("\\A");
-      return scanner.next();
-    } catch (IOException e) {
-      LOGGER.debug("Error closing response stream: " + e.getMessage());
+  private static long parseRetryAfter(String retryAfter) {
+    if (retryAfter == null) {
+      return -1;
+    }
+
+    try {
+      return Math.max(0, Long.parseLong(retryAfter.trim())) * 1000;
+    } catch (NumberFormatException e) {
+      LOGGER.debug("Ignoring Retry-After header: " + retryAfter);
+      return -1;
+    }
+  }
+
+  /** Thrown when a webhook URL can't be parsed, a failure that retrying won't fix. */
+  private static final class InvalidWebhookUrlException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    InvalidWebhookUrlException(String message) {
+      super(message);
     }
-    return null;
   }
 }
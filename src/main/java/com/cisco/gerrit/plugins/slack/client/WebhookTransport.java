@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.client;
+
+import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.cisco.gerrit.plugins.slack.config.ProxySettings;
+import java.net.Authenticator;
+import java.net.InetSocketAddress;
+import java.net.PasswordAuthentication;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the long-lived HttpClient messages are published with, so that connections to Slack are
+ * pooled and kept alive across messages, using HTTP/2 where the server supports it, rather than
+ * paying a TCP and TLS handshake for each message. The client is shared by all the deliveries and
+ * only built again when the proxy settings or the connect timeout of gerrit.config change.
+ */
+public class WebhookTransport {
+  /** The class logger instance. */
+  private static final Logger LOGGER = LoggerFactory.getLogger(WebhookTransport.class);
+
+  /** The number of webhook URIs kept parsed, past which the cache starts over. */
+  private static final int MAX_CACHED_URIS = 256;
+
+  private final ConcurrentMap<String, URI> uris;
+
+  private volatile Connector connector;
+
+  /** Creates a new WebhookTransport, its client being built on first use. */
+  public WebhookTransport() {
+    this.uris = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Gets the client to publish with, building it if the proxy settings or the connect timeout
+   * changed since it was built.
+   *
+   * @param config The ProjectConfig holding the proxy settings and the connect timeout.
+   * @return The shared client.
+   */
+  public HttpClient getClient(ProjectConfig config) {
+    ProxySettings proxy;
+    proxy = config.getProxySettings();
+    int connectTimeout;
+    connectTimeout = config.getConnectTimeout();
+
+    Connector current;
+    current = connector;
+    if (current == null || !current.isFor(proxy, connectTimeout)) {
+      synchronized (this) {
+        current = connector;
+        if (current == null || !current.isFor(proxy, connectTimeout)) {
+          current = new Connector(proxy, connectTimeout, buildClient(proxy, connectTimeout));
+          connector = current;
+        }
+      }
+    }
+
+    return current.client;
+  }
+
+  /**
+   * Gets the parsed URI of a webhook URL, parsing each URL once.
+   *
+   * @param webhookUrl The webhook URL.
+   * @return The URI of the webhook.
+   * @throws IllegalArgumentException If the URL is invalid.
+   */
+  public URI getUri(String webhookUrl) {
+    URI uri;
+    uri = uris.get(webhookUrl);
+    if (uri == null) {
+      uri = URI.create(webhookUrl);
+      if (uri.getScheme() == null || uri.getHost() == null) {
+        throw new IllegalArgumentException("Not an absolute URL: " + webhookUrl);
+      }
+
+      if (uris.size() >= MAX_CACHED_URIS) {
+        uris.clear();
+      }
+      uris.put(webhookUrl, uri);
+    }
+
+    return uri;
+  }
+
+  /**
+   * Builds a client for the given proxy settings and connect timeout.
+   *
+   * @param proxy The proxy settings, null to connect directly.
+   * @param connectTimeout The connect timeout in milliseconds, 0 or less for none.
+   * @return The new client.
+   */
+  private static HttpClient buildClient(ProxySettings proxy, int connectTimeout) {
+    HttpClient.Builder builder;
+    builder =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NEVER);
+
+    if (connectTimeout > 0) {
+      builder.connectTimeout(Duration.ofMillis(connectTimeout));
+    }
+
+    if (proxy != null) {
+      LOGGER.info("Connecting via proxy " + proxy);
+
+      // Left unresolved, the proxy host is looked up when connecting rather than pinned to the
+      // address it had when the settings were read
+      builder.proxy(
+          ProxySelector.of(InetSocketAddress.createUnresolved(proxy.getHost(), proxy.getPort())));
+
+      if (proxy.hasCredentials()) {
+        builder.authenticator(new ProxyAuthenticator(proxy.getUsername(), proxy.getPassword()));
+      }
+    } else {
+      LOGGER.info("Connecting directly");
+    }
+
+    return builder.build();
+  }
+
+  /**
+   * Answers the authentication challenges of the proxy server. It is only given to the client of
+   * this transport rather than being installed as the JVM-wide default Authenticator, so neither
+   * Gerrit nor other plugins are affected, and it never hands the proxy credentials to anything but
+   * the proxy, e.g. to a webhook URL asking for credentials.
+   */
+  private static final class ProxyAuthenticator extends Authenticator {
+    private final String username;
+    private final char[] password;
+
+    ProxyAuthenticator(String username, String password) {
+      this.username = username;
+      this.password = StringUtils.defaultString(password).toCharArray();
+    }
+
+    @Override
+    protected PasswordAuthentication getPasswordAuthentication() {
+      if (getRequestorType() != RequestorType.PROXY) {
+        return null;
+      }
+
+      return new PasswordAuthentication(username, password.clone());
+    }
+  }
+
+  /** A client along with the settings it was built for. */
+  private static final class Connector {
+    private final ProxySettings proxy;
+    private final int connectTimeout;
+    private final HttpClient client;
+
+    private Connector(ProxySettings proxy, int connectTimeout, HttpClient client) {
+      this.proxy = proxy;
+      this.connectTimeout = connectTimeout;
+      this.client = client;
+    }
+
+    /** Whether the client was built for the given settings, compared without allocating. */
+    private boolean isFor(ProxySettings proxy, int connectTimeout) {
+      return Objects.equals(this.proxy, proxy) && this.connectTimeout == connectTimeout;
+    }
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.config;
+
+import com.google.gerrit.server.config.PluginConfig;
+import com.google.gerrit.server.config.PluginConfigFactory;
+
+/**
+ * A simple configuration class to access the server wide plugin config values stored in the
+ * gerrit.config file.
+ */
+public class GlobalConfig {
+  private int deliveryThreads;
+  private int deliveryQueueCapacity;
+  private boolean deliveryVirtualThreads;
+  private int deliveryMaxConcurrency;
+  private int deliveryMaxAttempts;
+  private int deliveryRetryDeadline;
+  private int deliveryCoalesceWindow;
+  private int deliveryRateLimit;
+  private int deliveryRateBurst;
+  private long outboxSegmentSize;
+  private int outboxSyncInterval;
+
+  /**
+   * Creates a new instance of the GlobalConfig class.
+   *
+   * @param configFactory The Gerrit PluginConfigFactory instance to use.
+   */
+  public GlobalConfig(PluginConfigFactory configFactory) {
+    PluginConfig config;
+    config = configFactory.getFromGerritConfig(ProjectConfig.CONFIG_NAME);
+
+    deliveryThreads = Math.max(1, config.getInt("delivery-threads", 2));
+    deliveryQueueCapacity = Math.max(1, config.getInt("delivery-queue-capacity", 1000));
+    deliveryVirtualThreads = config.getBoolean("delivery-virtual-threads", false);
+    deliveryMaxConcurrency = Math.max(1, config.getInt("delivery-max-concurrency", 64));
+    deliveryMaxAttempts = Math.max(1, config.getInt("delivery-max-attempts", 10));
+    deliveryRetryDeadline = Math.max(0, config.getInt("delivery-retry-deadline", 600));
+    deliveryCoalesceWindow = Math.max(0, config.getInt("delivery-coalesce-window", 0));
+    deliveryRateLimit = Math.max(0, config.getInt("delivery-rate-limit", 60));
+    deliveryRateBurst = Math.max(1, config.getInt("delivery-rate-burst", 3));
+    outboxSegmentSize = Math.max(1, config.getLong("outbox-segment-size", 4 * 1024 * 1024));
+    outboxSyncInterval = Math.max(1, config.getInt("outbox-sync-interval", 200));
+  }
+
+  public int getDeliveryThreads() {
+    return deliveryThreads;
+  }
+
+  public int getDeliveryQueueCapacity() {
+    return deliveryQueueCapacity;
+  }
+
+  public boolean getDeliveryVirtualThreads() {
+    return deliveryVirtualThreads;
+  }
+
+  public int getDeliveryMaxConcurrency() {
+    return deliveryMaxConcurrency;
+  }
+
+  public int getDeliveryMaxAttempts() {
+    return deliveryMaxAttempts;
+  }
+
+  public int getDeliveryRetryDeadline() {
+    return deliveryRetryDeadline;
+  }
+
+  public int getDeliveryCoalesceWindow() {
+    return deliveryCoalesceWindow;
+  }
+
+  public int getDeliveryRateLimit() {
+    return deliveryRateLimit;
+  }
+
+  public int getDeliveryRateBurst() {
+    return deliveryRateBurst;
+  }
+
+  public long getOutboxSegmentSize() {
+    return outboxSegmentSize;
+  }
+
+  public int getOutboxSyncInterval() {
+    return outboxSyncInterval;
+  }
+}
@@ -17,14 +17,25 @@
 
 package com.cisco.gerrit.plugins.slack.config;
 
+import com.cisco.gerrit.plugins.slack.message.CompiledTemplate;
+import com.cisco.gerrit.plugins.slack.message.MessageFormat;
+import com.cisco.gerrit.plugins.slack.message.TemplateCache;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.config.PluginConfig;
 import com.google.gerrit.server.config.PluginConfigFactory;
 import com.google.gerrit.server.project.NoSuchProjectException;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.eclipse.jgit.lib.Config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A simple configuration class to access plugin config values.
+ * A simple configuration class to access plugin config values. The project config is resolved once,
+ * with its inherited values, and every value is read from it up front, so that instances are
+ * immutable once loaded.
  *
  * @author Matthew Montgomery
  */
@@ -35,26 +46,37 @@ public class ProjectConfig {
   /** The class logger instance. */
   private static final Logger LOGGER = LoggerFactory.getLogger(ProjectConfig.class);
 
-  private boolean enabled;
-  private String webhookUrl;
-  private String channel;
-  private String username;
-  private String ignore;
-  private boolean ignoreUnchangedPatchSet;
-  private boolean ignoreWorkInProgressPatchSet;
-  private boolean ignorePrivatePatchSet;
-  private String ignoreCommentAuthor;
-  private boolean publishOnPatchSetCreated;
-  private boolean publishOnChangeMerged;
-  private boolean publishOnCommentAdded;
-  private boolean publishOnReviewerAdded;
-  private boolean publishOnWipReady;
-  private boolean publishOnPrivateToPublic;
-
-  private String proxyHost;
-  private int proxyPort;
-  private String proxyUsername;
-  private String proxyPassword;
+  private final boolean enabled;
+  private final String webhookUrl;
+  private final String channel;
+  private final String username;
+  private final String ignore;
+  private final Pattern ignorePattern;
+  private final boolean ignoreUnchangedPatchSet;
+  private final boolean ignoreWorkInProgressPatchSet;
+  private final boolean ignorePrivatePatchSet;
+  private final String ignoreCommentAuthor;
+  private final Pattern ignoreCommentAuthorPattern;
+  private final boolean publishOnPatchSetCreated;
+  private final boolean publishOnChangeMerged;
+  private final boolean publishOnCommentAdded;
+  private final boolean publishOnReviewerAdded;
+  private final boolean publishOnWipReady;
+  private final boolean publishOnPrivateToPublic;
+  private final String template;
+  private final Supplier<CompiledTemplate> messageTemplate;
+  private final MessageFormat format;
+  private final int messageMaxBytes;
+  private final int messageMaxLines;
+
+  private final String proxyHost;
+  private final int proxyPort;
+  private final String proxyUsername;
+  private final String proxyPassword;
+  private final ProxySettings proxySettings;
+  private final int connectTimeout;
+  private final int readTimeout;
+  private final int requestDeadline;
 
   /**
    * Creates a new instance of the ProjectConfig class for the given project.
@@ -63,98 +85,159 @@ public class ProjectConfig {
    * @param project The project to use when looking up a configuration.
    */
   public ProjectConfig(PluginConfigFactory configFactory, String project) {
-    enabled = false;
+    this(configFactory, Project.NameKey.parse(project));
+  }
+
+  /**
+   * Creates a new instance of the ProjectConfig class for the given project.
+   *
+   * @param configFactory The Gerrit PluginConfigFactory instance to use.
+   * @param projectNameKey The name key of the project to use when looking up a configuration.
+   */
+  public ProjectConfig(PluginConfigFactory configFactory, Project.NameKey projectNameKey) {
+    this(configFactory, projectNameKey, null);
+  }
+
+  /**
+   * Creates a new instance of the ProjectConfig class for the given project, whose message template
+   * is looked up in the given TemplateCache the first time it is used.
+   *
+   * @param configFactory The Gerrit PluginConfigFactory instance to use.
+   * @param projectNameKey The name key of the project to use when looking up a configuration.
+   * @param templateCache The cache of the templates stored in refs/meta/config, null to always use
+   *     the bundled template.
+   */
+  ProjectConfig(
+      PluginConfigFactory configFactory,
+      Project.NameKey projectNameKey,
+      TemplateCache templateCache) {
+    this(
+        getProjectConfig(configFactory, projectNameKey),
+        configFactory.getFromGerritConfig(CONFIG_NAME),
+        projectNameKey,
+        templateCache);
+  }
 
-    Project.NameKey projectNameKey;
-    projectNameKey = Project.NameKey.parse(project);
+  /**
+   * Creates a new instance of the ProjectConfig class from already resolved configs.
+   *
+   * @param config The plugin config of the project, including inherited values.
+   * @param gerritConfig The plugin config of the gerrit.config file.
+   */
+  ProjectConfig(PluginConfig config, PluginConfig gerritConfig) {
+    this(config, gerritConfig, null, null);
+  }
+
+  private ProjectConfig(
+      PluginConfig config,
+      PluginConfig gerritConfig,
+      Project.NameKey projectNameKey,
+      TemplateCache templateCache) {
+    enabled = config.getBoolean("enabled", false);
+    webhookUrl = config.getString("webhookurl", "");
+    channel = config.getString("channel", "general");
+    username = config.getString("username", "gerrit");
+    ignore = config.getString("ignore", "");
+    ignorePattern = compileIgnorePattern("ignore", ignore);
+    ignoreUnchangedPatchSet = config.getBoolean("ignore-unchanged-patch-set", true);
+    ignoreWorkInProgressPatchSet = config.getBoolean("ignore-wip-patch-set", true);
+    ignorePrivatePatchSet = config.getBoolean("ignore-private-patch-set", true);
+    ignoreCommentAuthor = config.getString("ignore-comment-author", "");
+    ignoreCommentAuthorPattern = compileIgnorePattern("ignore-comment-author", ignoreCommentAuthor);
+    publishOnPatchSetCreated = config.getBoolean("publish-on-patch-set-created", true);
+    publishOnChangeMerged = config.getBoolean("publish-on-change-merged", true);
+    publishOnCommentAdded = config.getBoolean("publish-on-comment-added", true);
+    publishOnReviewerAdded = config.getBoolean("publish-on-reviewer-added", true);
+    publishOnWipReady = config.getBoolean("publish-on-wip-ready", publishOnPatchSetCreated);
+    publishOnPrivateToPublic =
+        config.getBoolean("publish-on-private-to-public", publishOnPatchSetCreated);
+    template = config.getString("template", "");
+    // Reading the template opens repositories, so it is left to the first message rendered
+    messageTemplate =
+        enabled && template != null && !template.isEmpty() && templateCache != null
+            ? Suppliers.memoize(() -> templateCache.get(projectNameKey, template))
+            : Suppliers.ofInstance(null);
+    format = getFormat(config);
+    messageMaxBytes = getPositiveInt(config, "message-max-bytes", 3000);
+    messageMaxLines = getPositiveInt(config, "message-max-lines", 30);
+
+    proxyHost = gerritConfig.getString("proxy-host", null);
+    proxyPort = gerritConfig.getInt("proxy-port", 8080);
+    proxyUsername = gerritConfig.getString("proxy-username", null);
+    proxyPassword = gerritConfig.getString("proxy-password", null);
+    proxySettings = ProxySettings.of(proxyHost, proxyPort, proxyUsername, proxyPassword);
+    connectTimeout = getPositiveInt(gerritConfig, "connect-timeout", 5000);
+    readTimeout = getPositiveInt(gerritConfig, "read-timeout", 10000);
+    requestDeadline = getPositiveInt(gerritConfig, "request-deadline", 30000);
+  }
+
+  /**
+   * Compiles an ignore pattern once, so that events are only matched against it.
+   *
+   * @param key The name of the config option, used when reporting an invalid pattern.
+   * @param regex The configured pattern.
+   * @return The compiled pattern, null if no pattern or an invalid one is configured.
+   */
+  private static Pattern compileIgnorePattern(String key, String regex) {
+    if (regex == null || regex.isEmpty()) {
+      return null;
+    }
 
     try {
-      enabled =
-          configFactory
-              .getFromProjectConfigWithInheritance(projectNameKey, CONFIG_NAME)
-              .getBoolean("enabled", false);
-
-      webhookUrl =
-          configFactory
-              .getFromProjectConfigWithInheritance(projectNameKey, CONFIG_NAME)
-              .getString("webhookurl", "");
-
-      channel =
-          configFactory
-              .getFromProjectConfigWithInheritance(projectNameKey, CONFIG_NAME)
-              .getString("channel", "general");
-
-      username =
-          configFactory
-              .getFromProjectConfigWithInheritance(projectNameKey, CONFIG_NAME)
-              .getString("username", "gerrit");
-
-      ignore =
-          configFactory
-              .getFromProjectConfigWithInheritance(projectNameKey, CONFIG_NAME)
-              .getString("ignore", "");
-
-      ignoreUnchangedPatchSet =
-          configFactory
-              .getFromProjectConfigWithInheritance(projectNameKey, CONFIG_NAME)
-              .getBoolean("ignore-unchanged-patch-set", true);
-
-      ignoreWorkInProgressPatchSet =
-          configFactory
-              .getFromProjectConfigWithInheritance(projectNameKey, CONFIG_NAME)
-              .getBoolean("ignore-wip-patch-set", true);
-
-      ignorePrivatePatchSet =
-          configFactory
-              .getFromProjectConfigWithInheritance(projectNameKey, CONFIG_NAME)
-              .getBoolean("ignore-private-patch-set", true);
-
-      ignoreCommentAuthor =
-          configFactory
-              .getFromProjectConfigWithInheritance(projectNameKey, CONFIG_NAME)
-              .getString("ignore-comment-author", "");
-
-      publishOnPatchSetCreated =
-          configFactory
-              .getFromProjectConfigWithInheritance(projectNameKey, CONFIG_NAME)
-              .getBoolean("publish-on-patch-set-created", true);
-
-      publishOnChangeMerged =
-          configFactory
-              .getFromProjectConfigWithInheritance(projectNameKey, CONFIG_NAME)
-              .getBoolean("publish-on-change-merged", true);
-
-      publishOnCommentAdded =
-          configFactory
-              .getFromProjectConfigWithInheritance(projectNameKey, CONFIG_NAME)
-              .getBoolean("publish-on-comment-added", true);
-
-      publishOnReviewerAdded =
-          configFactory
-              .getFromProjectConfigWithInheritance(projectNameKey, CONFIG_NAME)
-              .getBoolean("publish-on-reviewer-added", true);
-
-      publishOnWipReady =
-          configFactory
-              .getFromProjectConfigWithInheritance(projectNameKey, CONFIG_NAME)
-              .getBoolean("publish-on-wip-ready", publishOnPatchSetCreated);
-
-      publishOnPrivateToPublic =
-          configFactory
-              .getFromProjectConfigWithInheritance(projectNameKey, CONFIG_NAME)
-              .getBoolean("publish-on-private-to-public", publishOnPatchSetCreated);
-
-      proxyHost = configFactory.getFromGerritConfig(CONFIG_NAME).getString("proxy-host", null);
-
-      proxyPort = configFactory.getFromGerritConfig(CONFIG_NAME).getInt("proxy-port", 8080);
-
-      proxyUsername =
-          configFactory.getFromGerritConfig(CONFIG_NAME).getString("proxy-username", null);
-
-      proxyPassword =
-          configFactory.getFromGerritConfig(CONFIG_NAME).getString("proxy-password", null);
+      return Pattern.compile(regex, Pattern.DOTALL);
+    } catch (PatternSyntaxException e) {
+      LOGGER.warn("The specified " + key + " pattern is invalid and ignored: " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Reads the message format, so that a misspelled one falls back to the default rather than
+   * failing every event of the project.
+   *
+   * @param config The plugin config of the project.
+   * @return The configured message format, attachments if none or an invalid one is configured.
+   */
+  private static MessageFormat getFormat(PluginConfig config) {
+    try {
+      return config.getEnum("format", MessageFormat.ATTACHMENTS);
+    } catch (IllegalArgumentException e) {
+      LOGGER.warn("The specified format is invalid and ignored: " + e.getMessage());
+      return MessageFormat.ATTACHMENTS;
+    }
+  }
+
+  /**
+   * Reads a limit that can't be lifted, so that a value of 0 or less falls back to the default.
+   *
+   * @param config The plugin config to read the limit from.
+   * @param key The name of the config option.
+   * @param defaultValue The default value, used when the option isn't a positive number.
+   * @return The configured limit.
+   */
+  private static int getPositiveInt(PluginConfig config, String key, int defaultValue) {
+    int value;
+    value = config.getInt(key, defaultValue);
+
+    return value > 0 ? value : defaultValue;
+  }
+
+  /**
+   * Resolves the plugin config of the given project, walking its inheritance chain once.
+   *
+   * @param configFactory The Gerrit PluginConfigFactory instance to use.
+   * @param projectNameKey The name key of the project.
+   * @return The plugin config of the project, an empty one if the project doesn't exist.
+   */
+  private static PluginConfig getProjectConfig(
+      PluginConfigFactory configFactory, Project.NameKey projectNameKey) {
+    try {
+      return configFactory.getFromProjectConfigWithInheritance(projectNameKey, CONFIG_NAME);
     } catch (NoSuchProjectException e) {
-      LOGGER.warn("The specified project could not be found: " + project);
+      LOGGER.warn("The specified project could not be found: " + projectNameKey);
+
+      // An empty config leaves the plugin disabled for the project
+      return PluginConfig.createFromGerritConfig(CONFIG_NAME, new Config());
     }
   }
 
@@ -178,6 +261,15 @@ public class ProjectConfig {
     return ignore;
   }
 
+  /**
+   * Gets the compiled ignore pattern commit messages are matched against.
+   *
+   * @return The pattern, null if commit messages should not be filtered.
+   */
+  public Pattern getIgnorePattern() {
+    return ignorePattern;
+  }
+
   public boolean getIgnoreUnchangedPatchSet() {
     return ignoreUnchangedPatchSet;
   }
@@ -194,6 +286,15 @@ public class ProjectConfig {
     return ignoreCommentAuthor;
   }
 
+  /**
+   * Gets the compiled ignore-comment-author pattern comment authors are matched against.
+   *
+   * @return The pattern, null if comments should not be filtered by author.
+   */
+  public Pattern getIgnoreCommentAuthorPattern() {
+    return ignoreCommentAuthorPattern;
+  }
+
   public boolean shouldPublishOnPatchSetCreated() {
     return publishOnPatchSetCreated;
   }
@@ -218,6 +319,52 @@ public class ProjectConfig {
     return publishOnPrivateToPublic;
   }
 
+  /**
+   * Gets the name of the message template file in refs/meta/config.
+   *
+   * @return The file name, empty to use the bundled template.
+   */
+  public String getTemplate() {
+    return template;
+  }
+
+  /**
+   * Gets the compiled message template of the project, read from refs/meta/config the first time it
+   * is needed. Meant to be called while rendering a message, not on Gerrit's event thread.
+   *
+   * @return The template, null to use the bundled one.
+   */
+  public CompiledTemplate getMessageTemplate() {
+    return messageTemplate.get();
+  }
+
+  /**
+   * Gets the shape of the payloads published for the project.
+   *
+   * @return The message format, only used when no message template is configured.
+   */
+  public MessageFormat getFormat() {
+    return format;
+  }
+
+  /**
+   * Gets the maximum number of UTF-8 encoded bytes published of a comment or commit message title.
+   *
+   * @return The limit in bytes, always positive.
+   */
+  public int getMessageMaxBytes() {
+    return messageMaxBytes;
+  }
+
+  /**
+   * Gets the maximum number of lines published of a comment.
+   *
+   * @return The limit in lines, always positive.
+   */
+  public int getMessageMaxLines() {
+    return messageMaxLines;
+  }
+
   public String getProxyHost() {
     return proxyHost;
   }
@@ -233,4 +380,41 @@ public class ProjectConfig {
   public String getProxyPassword() {
     return proxyPassword;
   }
+
+  /**
+   * Gets the proxy settings, equal to those of other configs as long as gerrit.config didn't
+   * change.
+   *
+   * @return The settings, null if no proxy is configured.
+   */
+  public ProxySettings getProxySettings() {
+    return proxySettings;
+  }
+
+  /**
+   * Gets the time allowed to connect to Slack, or to the proxy.
+   *
+   * @return The timeout in milliseconds, always positive.
+   */
+  public int getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  /**
+   * Gets the time allowed for Slack to respond once a message was sent.
+   *
+   * @return The timeout in milliseconds, always positive.
+   */
+  public int getReadTimeout() {
+    return readTimeout;
+  }
+
+  /**
+   * Gets the time allowed for a whole request, from connecting until the response is read.
+   *
+   * @return The deadline in milliseconds, always positive.
+   */
+  public int getRequestDeadline() {
+    return requestDeadline;
+  }
 }
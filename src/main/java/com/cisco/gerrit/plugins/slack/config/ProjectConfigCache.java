@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.config;
+
+import com.cisco.gerrit.plugins.slack.message.TemplateCache;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.extensions.events.GitReferenceUpdatedListener;
+import com.google.gerrit.extensions.registration.DynamicSet;
+import com.google.gerrit.server.cache.CacheModule;
+import com.google.gerrit.server.config.AllProjectsName;
+import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.gerrit.server.project.ProjectState;
+import com.google.inject.Inject;
+import com.google.inject.Module;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache of the ProjectConfig of each project, so that resolving the config of an event costs a
+ * map lookup rather than a walk of the project's inheritance chain for every setting.
+ *
+ * <p>The message template a project may store in refs/meta/config is resolved by its cached config
+ * the first time a message is rendered, so that it is looked up once per config change too, but
+ * never on Gerrit's event thread.
+ *
+ * <p>Entries are dropped when the refs/meta/config branch of their project, or of any of its
+ * parents, is updated. They also expire after a while, in case an update went unnoticed.
+ */
+@Singleton
+public class ProjectConfigCache implements GitReferenceUpdatedListener {
+  /** The name of the cache, configurable as slack-integration.project_config in gerrit.config. */
+  static final String CACHE_NAME = "project_config";
+
+  /** The class logger instance. */
+  private static final Logger LOGGER = LoggerFactory.getLogger(ProjectConfigCache.class);
+
+  /**
+   * Creates the module binding the cache and its invalidation.
+   *
+   * @return The module.
+   */
+  public static Module module() {
+    return new CacheModule() {
+      @Override
+      protected void configure() {
+        cache(CACHE_NAME, Project.NameKey.class, ProjectConfig.class)
+            .maximumWeight(1024)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .loader(Loader.class);
+
+        DynamicSet.bind(binder(), GitReferenceUpdatedListener.class).to(ProjectConfigCache.class);
+      }
+    };
+  }
+
+  private final LoadingCache<Project.NameKey, ProjectConfig> cache;
+  private final ProjectCache projectCache;
+  private final AllProjectsName allProjectsName;
+
+  @Inject
+  ProjectConfigCache(
+      @Named(CACHE_NAME) LoadingCache<Project.NameKey, ProjectConfig> cache,
+      ProjectCache projectCache,
+      AllProjectsName allProjectsName) {
+    this.cache = cache;
+    this.projectCache = projectCache;
+    this.allProjectsName = allProjectsName;
+  }
+
+  /**
+   * Gets the config of the given project.
+   *
+   * @param project The name key of the project.
+   * @return The config of the project.
+   */
+  public ProjectConfig get(Project.NameKey project) {
+    return cache.getUnchecked(project);
+  }
+
+  @Override
+  public void onGitReferenceUpdated(Event event) {
+    if (!RefNames.REFS_CONFIG.equals(event.getRefName())) {
+      return;
+    }
+
+    Project.NameKey updated;
+    updated = Project.nameKey(event.getProjectName());
+
+    if (updated.equals(allProjectsName)) {
+      cache.invalidateAll();
+      return;
+    }
+
+    List<Project.NameKey> stale;
+    stale = new ArrayList<>();
+    for (Project.NameKey project : cache.asMap().keySet()) {
+      if (project.equals(updated) || inheritsFrom(project, updated)) {
+        stale.add(project);
+      }
+    }
+
+    LOGGER.debug("Config of {} updated, invalidating {}", updated, stale);
+    cache.invalidateAll(stale);
+  }
+
+  /** Whether the given project inherits its config from the given parent. */
+  private boolean inheritsFrom(Project.NameKey project, Project.NameKey parent) {
+    Optional<ProjectState> state;
+    try {
+      state = projectCache.get(project);
+    } catch (RuntimeException e) {
+      LOGGER.warn("Unable to look up the parents of " + project, e);
+      return true;
+    }
+
+    if (!state.isPresent()) {
+      return true;
+    }
+
+    for (ProjectState ancestor : state.get().parents()) {
+      if (ancestor.getNameKey().equals(parent)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Loads the config of a project missing from the cache. */
+  static class Loader extends CacheLoader<Project.NameKey, ProjectConfig> {
+    private final PluginConfigFactory configFactory;
+    private final TemplateCache templateCache;
+
+    @Inject
+    Loader(PluginConfigFactory configFactory, TemplateCache templateCache) {
+      this.configFactory = configFactory;
+      this.templateCache = templateCache;
+    }
+
+    @Override
+    public ProjectConfig load(Project.NameKey project) {
+      return new ProjectConfig(configFactory, project, templateCache);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.config;
+
+import java.util.Objects;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * The proxy settings of the gerrit.config file, compared by value so that the HTTP client built
+ * from them is only built again once they change.
+ */
+public final class ProxySettings {
+  private final String host;
+  private final int port;
+  private final String username;
+  private final String password;
+
+  /**
+   * Creates new proxy settings.
+   *
+   * @param host The host of the proxy server.
+   * @param port The port of the proxy server.
+   * @param username The username to authenticate to the proxy server, blank if none.
+   * @param password The password of the username, may be null.
+   */
+  public ProxySettings(String host, int port, String username, String password) {
+    this.host = host;
+    this.port = port;
+    this.username = username;
+    this.password = password;
+  }
+
+  /**
+   * Creates the proxy settings of the given gerrit.config values.
+   *
+   * @param host The host of the proxy server, blank if none is configured.
+   * @param port The port of the proxy server.
+   * @param username The username to authenticate to the proxy server, blank if none.
+   * @param password The password of the username, may be null.
+   * @return The settings, null if no proxy host is configured.
+   */
+  static ProxySettings of(String host, int port, String username, String password) {
+    return StringUtils.isNotBlank(host) ? new ProxySettings(host, port, username, password) : null;
+  }
+
+  public String getHost() {
+    return host;
+  }
+
+  public int getPort() {
+    return port;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public String getPassword() {
+    return password;
+  }
+
+  /**
+   * Whether connections to the proxy server need to be authenticated.
+   *
+   * @return true, if a username is configured.
+   */
+  public boolean hasCredentials() {
+    return StringUtils.isNotBlank(username);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof ProxySettings)) {
+      return false;
+    }
+
+    ProxySettings that;
+    that = (ProxySettings) other;
+
+    return port == that.port
+        && host.equals(that.host)
+        && Objects.equals(username, that.username)
+        && Objects.equals(password, that.password);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(host, port, username);
+  }
+
+  @Override
+  public String toString() {
+    // Leaves the password out of the logs
+    return host + ":" + port + (hasCredentials() ? " as " + username : "");
+  }
+}
@@ -0,0 +1,837 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.delivery;
+
+import com.cisco.gerrit.plugins.slack.client.DeliveryResult;
+import com.cisco.gerrit.plugins.slack.client.WebhookClient;
+import com.cisco.gerrit.plugins.slack.client.WebhookTransport;
+import com.cisco.gerrit.plugins.slack.config.GlobalConfig;
+import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.cisco.gerrit.plugins.slack.config.ProjectConfigCache;
+import com.cisco.gerrit.plugins.slack.util.Utf8Buffer;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.annotations.PluginData;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.metrics.Description;
+import com.google.gerrit.metrics.Description.Units;
+import com.google.gerrit.metrics.MetricMaker;
+import com.google.gerrit.metrics.Timer0;
+import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded executor, owned by the plugin and registered with Gerrit's WorkQueue, that runs the
+ * Slack deliveries so that they never block Gerrit's event dispatch. Queued lanes are visible via
+ * the show-queue command.
+ *
+ * <p>Deliveries are grouped into lanes keyed by webhook URL and channel. The tasks of a lane run
+ * one at a time in submission order, so messages about a change arrive in a channel in the order
+ * they happened, while different lanes publish in parallel.
+ *
+ * <p>A delivery doesn't hold a thread while its request is in flight, so the small thread pool only
+ * runs the short steps before and after each request, and many lanes can publish at once. The
+ * number of requests in flight is capped by a semaphore rather than by the pool size.
+ *
+ * <p>Optionally the lanes run on virtual threads instead of the platform thread pool, when the JVM
+ * supports them, so that a delivery waiting for the semaphore only blocks its own virtual thread.
+ * Virtual thread deliveries aren't listed by the show-queue command.
+ *
+ * <p>Messages are rendered and journaled in an Outbox under the plugin data directory as soon as
+ * they are accepted, rather than once they reach the head of their lane, and acknowledged once
+ * Slack accepted them. Messages that weren't acknowledged when the plugin stopped, including those
+ * still queued behind a delivery being retried, are published again when it starts. The outbox is
+ * locked while it is open, so that a reloaded plugin only replays it once the previous instance
+ * stopped.
+ *
+ * <p>Deliveries failing for a transient reason, such as rate limiting, server errors or timeouts,
+ * are retried after a jittered exponential backoff, or after the delay Slack asked for. A lane
+ * waiting for a retry keeps its later messages queued, but doesn't hold a thread: the retry is
+ * scheduled on a timer.
+ *
+ * <p>Deliveries to a webhook URL are rate limited by a token bucket, since Slack throttles incoming
+ * webhooks to about one message per second. A delivery waiting for a token is scheduled on the
+ * timer as well.
+ */
+@Singleton
+public class DeliveryExecutor implements LifecycleListener {
+  /** The name of the queue as shown by the show-queue command. */
+  public static final String QUEUE_NAME = "Slack-Integration";
+
+  /** The class logger instance. */
+  private static final Logger LOGGER = LoggerFactory.getLogger(DeliveryExecutor.class);
+
+  /** How long to wait for queued deliveries to finish when the plugin is stopped. */
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+  /** How often the outbox is tried again while another instance of the plugin holds it. */
+  private static final long OUTBOX_LOCK_RETRY_MILLIS = 1000;
+
+  /** How often the outbox segments are compacted. */
+  private static final long COMPACTION_INTERVAL_SECONDS = 60;
+
+  /** The backoff before the first retry of a delivery, doubled for each further retry. */
+  private static final long INITIAL_BACKOFF_MILLIS = 1000;
+
+  /** The longest backoff between two attempts of a delivery. */
+  private static final long MAX_BACKOFF_MILLIS = 60000;
+
+  private final WorkQueue workQueue;
+  private final PluginConfigFactory configFactory;
+  private final ProjectConfigCache projectConfigCache;
+  private final Path outboxDirectory;
+  private final Timer0 tokenWait;
+  private final ConcurrentMap<String, Lane> lanes;
+  private final WebhookTransport transport;
+
+  private volatile GlobalConfig config;
+  private volatile ExecutorService executor;
+  private volatile ScheduledExecutorService timer;
+  private volatile Outbox outbox;
+  private volatile RateLimiter rateLimiter;
+  private volatile Semaphore capacity;
+  private volatile Semaphore concurrency;
+
+  @Inject
+  DeliveryExecutor(
+      WorkQueue workQueue,
+      PluginConfigFactory configFactory,
+      ProjectConfigCache projectConfigCache,
+      @PluginData Path dataDirectory,
+      MetricMaker metricMaker) {
+    this.workQueue = workQueue;
+    this.configFactory = configFactory;
+    this.projectConfigCache = projectConfigCache;
+    this.outboxDirectory = dataDirectory.resolve("outbox");
+    this.tokenWait =
+        metricMaker.newTimer(
+            "delivery/token_wait",
+            new Description("Time deliveries waited for the rate limit of their webhook URL")
+                .setCumulative()
+                .setUnit(Units.MILLISECONDS));
+    this.lanes = new ConcurrentHashMap<>();
+    this.transport = new WebhookTransport();
+  }
+
+  @Override
+  public void start() {
+    config = new GlobalConfig(configFactory);
+
+    capacity = new Semaphore(config.getDeliveryQueueCapacity());
+
+    rateLimiter = null;
+    if (config.getDeliveryRateLimit() > 0) {
+      rateLimiter = new RateLimiter(config.getDeliveryRateLimit(), config.getDeliveryRateBurst());
+    }
+
+    concurrency = new Semaphore(config.getDeliveryMaxConcurrency());
+
+    executor = null;
+    if (config.getDeliveryVirtualThreads()) {
+      executor = VirtualThreads.newExecutor(QUEUE_NAME + "-");
+      if (executor == null) {
+        LOGGER.warn("Virtual threads are not supported by this JVM, using a thread pool instead");
+      }
+    }
+
+    if (executor == null) {
+      executor = workQueue.createQueue(config.getDeliveryThreads(), QUEUE_NAME, true);
+    }
+
+    timer = workQueue.createQueue(1, QUEUE_NAME + "-Timer", true);
+
+    startOutbox(0);
+  }
+
+  /**
+   * Opens the outbox, schedules its maintenance and queues the messages left unpublished. While the
+   * plugin is reloaded, the previous instance may still hold the outbox; it is then opened, and its
+   * messages replayed, once that instance stopped.
+   *
+   * @param attempt The number of times the outbox was found held by another instance.
+   */
+  private void startOutbox(int attempt) {
+    Outbox journal;
+    journal = new Outbox(outboxDirectory, config.getOutboxSegmentSize());
+
+    List<OutboxEntry> pending;
+    synchronized (this) {
+      if (timer.isShutdown()) {
+        return;
+      }
+
+      try {
+        pending = journal.open();
+      } catch (IOException e) {
+        LOGGER.error("Unable to open the outbox, messages won't survive a restart", e);
+        return;
+      }
+
+      if (pending == null) {
+        if (attempt == 0) {
+          LOGGER.info("Waiting for the previous instance of the plugin to release the outbox");
+        }
+        runLater(() -> startOutbox(attempt + 1), OUTBOX_LOCK_RETRY_MILLIS);
+        return;
+      }
+      outbox = journal;
+
+      timer.scheduleWithFixedDelay(
+          this::syncOutbox,
+          config.getOutboxSyncInterval(),
+          config.getOutboxSyncInterval(),
+          TimeUnit.MILLISECONDS);
+      timer.scheduleWithFixedDelay(
+          this::compactOutbox,
+          COMPACTION_INTERVAL_SECONDS,
+          COMPACTION_INTERVAL_SECONDS,
+          TimeUnit.SECONDS);
+    }
+
+    if (!pending.isEmpty()) {
+      LOGGER.info("Publishing " + pending.size() + " Slack messages left in the outbox");
+    }
+    for (OutboxEntry entry : pending) {
+      submit(entry.getWebhookUrl(), entry.getChannel(), new ReplayTask(entry));
+    }
+  }
+
+  @Override
+  public void stop() {
+    if (executor == null) {
+      return;
+    }
+
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+
+    int queued;
+    queued = 0;
+    for (Lane lane : lanes.values()) {
+      queued += lane.size();
+    }
+    lanes.clear();
+
+    if (queued > 0 && outbox != null) {
+      LOGGER.info(
+          "Leaving " + queued + " queued Slack deliveries in the outbox for the next start");
+    } else if (queued > 0) {
+      LOGGER.warn("Dropping " + queued + " queued Slack deliveries on shutdown");
+    }
+
+    synchronized (this) {
+      timer.shutdownNow();
+      if (outbox != null) {
+        try {
+          outbox.close();
+        } catch (IOException e) {
+          LOGGER.error("Unable to close the outbox", e);
+        }
+        outbox = null;
+      }
+    }
+  }
+
+  /**
+   * Queues a delivery task on the lane for the given webhook URL and channel.
+   *
+   * @param webhookUrl The webhook URL the task publishes to.
+   * @param channel The channel the task publishes to.
+   * @param task The task to run.
+   * @return true, if the task was queued; false if the queue is full or shut down.
+   */
+  public boolean submit(String webhookUrl, String channel, Runnable task) {
+    return submit(
+        webhookUrl,
+        channel,
+        new DeliveryTask() {
+          @Override
+          public long run() {
+            task.run();
+            return DONE;
+          }
+
+          @Override
+          public String toString() {
+            return task.toString();
+          }
+        });
+  }
+
+  /**
+   * Queues a delivery task on the lane for the given webhook URL and channel.
+   *
+   * @param webhookUrl The webhook URL the task publishes to.
+   * @param channel The channel the task publishes to.
+   * @param task The task to run.
+   * @return true, if the task was queued; false if the queue is full or shut down.
+   */
+  public boolean submit(String webhookUrl, String channel, DeliveryTask task) {
+    return submit(webhookUrl, channel, task, lane -> task);
+  }
+
+  /**
+   * Queues a message on the lane of the config's webhook URL and channel. The message takes its
+   * place in the lane right away, but is rendered and journaled in the outbox on the thread pool
+   * without waiting for the deliveries ahead of it, so that it survives a restart even while its
+   * lane is held up by retries. Messages of a lane are rendered one after the other, so that the
+   * outbox replays them in order.
+   *
+   * @param project The name of the project the message is about.
+   * @param config The config of the project.
+   * @param message Renders the message, or returns null if there is nothing to publish. The buffer
+   *     is released once the message has been published or given up on.
+   * @return true, if the message was queued; false if the queue is full or shut down.
+   */
+  public boolean publish(String project, ProjectConfig config, Callable<Utf8Buffer> message) {
+    Render render;
+    render = new Render(project, config, message);
+
+    return submit(
+        config.getWebhookUrl(),
+        config.getChannel(),
+        render,
+        lane -> new Delivery(config, lane.render(render)));
+  }
+
+  /**
+   * Queues the task created for the lane of the given webhook URL and channel.
+   *
+   * @param description Describes the task in the log when the queue is full.
+   * @param factory Creates the task, called while holding the lane.
+   */
+  private boolean submit(
+      String webhookUrl, String channel, Object description, Function<Lane, DeliveryTask> factory) {
+    if (!capacity.tryAcquire()) {
+      LOGGER.warn("Delivery queue is full, dropping " + description);
+      return false;
+    }
+
+    String key;
+    key = webhookUrl + " " + channel;
+
+    lanes.compute(
+        key,
+        (k, lane) -> {
+          if (lane == null) {
+            lane = new Lane(k);
+          }
+          lane.add(factory.apply(lane));
+          return lane;
+        });
+
+    return true;
+  }
+
+  /**
+   * Journals a rendered message in the outbox.
+   *
+   * @return The outbox entry of the message, not persisted if the outbox is unavailable.
+   */
+  private OutboxEntry journal(String project, ProjectConfig config, Utf8Buffer message) {
+    OutboxEntry entry;
+    entry = null;
+
+    Outbox journal;
+    journal = outbox;
+    if (journal != null) {
+      try {
+        entry = journal.append(project, config.getWebhookUrl(), config.getChannel(), message);
+      } catch (IOException e) {
+        LOGGER.error("Unable to add message to the outbox, publishing it anyway", e);
+      }
+    }
+
+    if (entry == null) {
+      entry = new OutboxEntry(-1, project, config.getWebhookUrl(), config.getChannel(), message);
+    }
+
+    return entry;
+  }
+
+  /**
+   * Removes an entry from the outbox so that it isn't published again, and returns the buffer of
+   * its message to the pool.
+   */
+  private void acknowledge(OutboxEntry entry) {
+    Outbox journal;
+    journal = outbox;
+    if (journal != null) {
+      try {
+        journal.acknowledge(entry);
+      } catch (IOException e) {
+        LOGGER.warn("Unable to acknowledge message, it may be published again", e);
+      }
+    }
+    entry.getPayload().release();
+  }
+
+  /**
+   * Computes the delay before the next attempt of a delivery, picked at random between half and all
+   * of the exponential backoff so that failed deliveries don't all retry at once.
+   *
+   * @param attempts The number of attempts made so far.
+   * @return The delay in milliseconds.
+   */
+  private static long backoff(int attempts) {
+    long backoff;
+    backoff = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << Math.min(attempts - 1, 16));
+
+    return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+  }
+
+  private void syncOutbox() {
+    try {
+      Outbox journal;
+      journal = outbox;
+      if (journal != null) {
+        journal.sync();
+      }
+    } catch (IOException e) {
+      LOGGER.error("Unable to sync the outbox", e);
+    }
+  }
+
+  private void compactOutbox() {
+    try {
+      Outbox journal;
+      journal = outbox;
+      if (journal != null) {
+        journal.compact();
+      }
+    } catch (IOException e) {
+      LOGGER.error("Unable to compact the outbox", e);
+    }
+  }
+
+  /**
+   * Runs a task on the timer after the given delay. Meant for short tasks handing work over to the
+   * lanes.
+   *
+   * @param task The task to run.
+   * @param delay The delay in milliseconds.
+   */
+  public void runLater(Runnable task, long delay) {
+    try {
+      timer.schedule(task, delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      LOGGER.warn("Delivery queue is shut down, dropping " + task);
+    }
+  }
+
+  /** Dispatches the next task of the given lane to the thread pool. */
+  private void schedule(Lane lane) {
+    try {
+      executor.execute(lane);
+    } catch (RejectedExecutionException e) {
+      LOGGER.warn("Delivery queue is shut down, dropping " + lane);
+    }
+  }
+
+  /** Dispatches the next task of the given lane to the thread pool after the given delay. */
+  private void schedule(Lane lane, long delay) {
+    try {
+      timer.schedule(() -> schedule(lane), delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      LOGGER.warn("Delivery queue is shut down, dropping " + lane);
+    }
+  }
+
+  /**
+   * A serial queue of tasks sharing a webhook URL and channel. At most one task of a lane is
+   * dispatched to the thread pool at any time; once it is done the lane dispatches its next task,
+   * or removes itself from the lane map when it ran empty. A task asking to run again stays at the
+   * head of the lane and is dispatched again by the timer. Lanes are only added to and removed from
+   * the map from within its compute methods, so a task is never queued on a lane that was already
+   * removed.
+   */
+  private class Lane implements Runnable {
+    private final String key;
+    private final ArrayDeque<DeliveryTask> tasks;
+    private boolean scheduled;
+    private CompletableFuture<OutboxEntry> rendered;
+
+    Lane(String key) {
+      this.key = key;
+      this.tasks = new ArrayDeque<>();
+    }
+
+    synchronized void add(DeliveryTask task) {
+      tasks.add(task);
+      if (!scheduled) {
+        scheduled = true;
+        schedule(this);
+      }
+    }
+
+    /**
+     * Renders a message once the messages queued before it on this lane are journaled.
+     *
+     * @return The outbox entry of the message, completed with null if there is nothing to publish.
+     */
+    synchronized CompletionStage<OutboxEntry> render(Render render) {
+      CompletableFuture<OutboxEntry> previous;
+      previous = rendered;
+      rendered = render.entry;
+
+      if (previous == null) {
+        render.start();
+      } else {
+        previous.whenComplete((entry, error) -> render.start());
+      }
+      return render.entry;
+    }
+
+    synchronized int size() {
+      return tasks.size();
+    }
+
+    @Override
+    public void run() {
+      DeliveryTask task;
+      synchronized (this) {
+        task = tasks.peek();
+      }
+
+      CompletionStage<Long> result;
+      try {
+        result =
+            task != null ? task.runAsync() : CompletableFuture.completedFuture(DeliveryTask.DONE);
+      } catch (RuntimeException e) {
+        result = CompletableFuture.failedFuture(e);
+      }
+
+      // Deliveries in flight don't hold a thread
+      result.whenComplete(
+          (delay, error) -> {
+            if (error != null) {
+              LOGGER.error("Delivery " + task + " failed", error);
+              done(DeliveryTask.DONE);
+            } else {
+              done(delay != null ? delay : DeliveryTask.DONE);
+            }
+          });
+    }
+
+    /**
+     * Runs the current task again after the given delay, or moves on to the next task.
+     *
+     * @param delay The delay returned by the current task.
+     */
+    private void done(long delay) {
+      if (delay >= 0) {
+        schedule(this, delay);
+        return;
+      }
+
+      synchronized (this) {
+        tasks.poll();
+      }
+      capacity.release();
+
+      lanes.computeIfPresent(key, (k, lane) -> next());
+    }
+
+    /**
+     * Dispatches the next queued task.
+     *
+     * @return This lane if it has more tasks queued, null if it ran empty.
+     */
+    private synchronized Lane next() {
+      if (tasks.isEmpty()) {
+        scheduled = false;
+        return null;
+      }
+
+      schedule(this);
+      return this;
+    }
+
+    @Override
+    public synchronized String toString() {
+      DeliveryTask next;
+      next = tasks.peek();
+
+      return (next != null ? next.toString() : "slack-integration lane " + key)
+          + " ("
+          + tasks.size()
+          + " queued)";
+    }
+  }
+
+  /**
+   * Publishes an outbox entry, asking to run again while the failures are transient, and
+   * acknowledging the entry once it is published or given up on.
+   */
+  private class Delivery implements DeliveryTask {
+    private final ProjectConfig config;
+    private final CompletionStage<OutboxEntry> rendered;
+    private OutboxEntry entry;
+    private int attempts;
+    private long deadline;
+    private boolean reserved;
+
+    Delivery(ProjectConfig config, CompletionStage<OutboxEntry> rendered) {
+      this.config = config;
+      this.rendered = rendered;
+    }
+
+    @Override
+    public long run() {
+      return runAsync().toCompletableFuture().join();
+    }
+
+    @Override
+    public CompletionStage<Long> runAsync() {
+      if (entry == null) {
+        // Waits for the message to be journaled without holding the thread
+        return rendered.thenCompose(
+            journaled -> {
+              if (journaled == null) {
+                return CompletableFuture.completedFuture(DONE);
+              }
+              entry = journaled;
+              return attempt();
+            });
+      }
+
+      return attempt();
+    }
+
+    /** Makes an attempt at publishing the entry, once a token of its webhook URL is available. */
+    private CompletionStage<Long> attempt() {
+      // Each attempt takes a token, waiting on the timer for it if needed
+      RateLimiter limiter;
+      limiter = rateLimiter;
+      if (limiter != null && !reserved) {
+        long wait;
+        wait = limiter.reserve(entry.getWebhookUrl());
+        tokenWait.record(wait, TimeUnit.MILLISECONDS);
+        if (wait > 0) {
+          reserved = true;
+          return CompletableFuture.completedFuture(wait);
+        }
+      }
+      reserved = false;
+
+      if (attempts == 0) {
+        deadline =
+            System.currentTimeMillis()
+                + TimeUnit.SECONDS.toMillis(
+                    DeliveryExecutor.this.config.getDeliveryRetryDeadline());
+      }
+      attempts++;
+
+      // Each request in flight holds a permit, on virtual threads waiting for one is cheap
+      Semaphore permits;
+      permits = concurrency;
+      permits.acquireUninterruptibly();
+
+      CompletionStage<DeliveryResult> result;
+      try {
+        WebhookClient client;
+        client = new WebhookClient(config, transport);
+
+        result = client.publishAsync(entry.getPayload(), entry.getWebhookUrl());
+      } catch (IllegalArgumentException e) {
+        result =
+            CompletableFuture.completedFuture(DeliveryResult.permanentFailure(0, e.getMessage()));
+      } catch (RuntimeException e) {
+        permits.release();
+        throw e;
+      }
+
+      return result.whenComplete((response, error) -> permits.release()).thenApply(this::handle);
+    }
+
+    /**
+     * Acknowledges the entry once it is published or given up on, or asks to run again.
+     *
+     * @param result The result of the attempt.
+     * @return The delay before the next attempt, or DONE.
+     */
+    private long handle(DeliveryResult result) {
+      GlobalConfig settings;
+      settings = DeliveryExecutor.this.config;
+
+      if (result.isSuccess()) {
+        acknowledge(entry);
+        return DONE;
+      }
+
+      if (result.isRetryable() && attempts < settings.getDeliveryMaxAttempts()) {
+        long delay;
+        delay = result.getRetryAfter() >= 0 ? result.getRetryAfter() : backoff(attempts);
+
+        if (System.currentTimeMillis() + delay <= deadline) {
+          LOGGER.warn(
+              "Publishing to #"
+                  + entry.getChannel()
+                  + " failed with "
+                  + result
+                  + ", retrying in "
+                  + delay
+                  + " ms");
+          return delay;
+        }
+      }
+
+      LOGGER.error(
+          "Publishing to #"
+              + entry.getChannel()
+              + " failed with "
+              + result
+              + " after "
+              + attempts
+              + " attempt(s), dropping message");
+      acknowledge(entry);
+      return DONE;
+    }
+
+    @Override
+    public String toString() {
+      return "slack-integration publish to #"
+          + config.getChannel()
+          + (attempts > 0 ? " (attempt " + (attempts + 1) + ")" : "");
+    }
+  }
+
+  /**
+   * Renders a message on the thread pool and journals it in the outbox, completing the entry the
+   * delivery of the message waits for.
+   */
+  private class Render implements Runnable {
+    private final String project;
+    private final ProjectConfig config;
+    private final Callable<Utf8Buffer> message;
+    private final CompletableFuture<OutboxEntry> entry;
+
+    Render(String project, ProjectConfig config, Callable<Utf8Buffer> message) {
+      this.project = project;
+      this.config = config;
+      this.message = message;
+      this.entry = new CompletableFuture<>();
+    }
+
+    /**
+     * Dispatches the render to the thread pool, or renders the message right away while the plugin
+     * is stopping, so that it is journaled before the outbox is closed.
+     */
+    void start() {
+      try {
+        executor.execute(this);
+      } catch (RejectedExecutionException e) {
+        if (outbox != null) {
+          run();
+        } else {
+          LOGGER.warn("Delivery queue is shut down, dropping " + this);
+          entry.complete(null);
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      OutboxEntry journaled;
+      journaled = null;
+      try {
+        Utf8Buffer payload;
+        payload = message.call();
+
+        if (payload != null) {
+          journaled = journal(project, config, payload);
+        }
+      } catch (Exception e) {
+        LOGGER.error("Rendering " + this + " failed", e);
+      } finally {
+        entry.complete(journaled);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return message.toString();
+    }
+  }
+
+  /** Publishes a message left in the outbox when the plugin last stopped. */
+  private class ReplayTask implements DeliveryTask {
+    private final OutboxEntry entry;
+    private Delivery delivery;
+
+    ReplayTask(OutboxEntry entry) {
+      this.entry = entry;
+    }
+
+    @Override
+    public long run() {
+      return runAsync().toCompletableFuture().join();
+    }
+
+    @Override
+    public CompletionStage<Long> runAsync() {
+      if (delivery == null) {
+        ProjectConfig config;
+        config = projectConfigCache.get(Project.nameKey(entry.getProject()));
+
+        if (!config.isEnabled()) {
+          // The project has been disabled since
+          acknowledge(entry);
+          return CompletableFuture.completedFuture(DONE);
+        }
+
+        delivery = new Delivery(config, CompletableFuture.completedFuture(entry));
+      }
+
+      return delivery.runAsync();
+    }
+
+    @Override
+    public String toString() {
+      return delivery != null
+          ? delivery.toString()
+          : "slack-integration republish to #" + entry.getChannel();
+    }
+  }
+}
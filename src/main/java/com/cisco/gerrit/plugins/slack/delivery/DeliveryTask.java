@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.delivery;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A task queued on a lane of the DeliveryExecutor that may ask to run again later, e.g. to retry a
+ * failed delivery. The lane waits for the task to be done before running its next task, without
+ * holding a thread while waiting, be it for the task to run again or for a task running
+ * asynchronously to complete.
+ */
+public interface DeliveryTask {
+  /** Returned by run() once the task is done. */
+  long DONE = -1;
+
+  /**
+   * Runs the task.
+   *
+   * @return The delay in milliseconds after which the task wants to run again, or DONE.
+   */
+  long run();
+
+  /**
+   * Runs the task, possibly without holding the calling thread until it is done, e.g. while a
+   * request is in flight. The lane calls this method rather than run().
+   *
+   * @return The delay in milliseconds after which the task wants to run again, or DONE, completed
+   *     once the task is done.
+   */
+  default CompletionStage<Long> runAsync() {
+    return CompletableFuture.completedFuture(run());
+  }
+}
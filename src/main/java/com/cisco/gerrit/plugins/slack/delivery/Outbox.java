@@ -0,0 +1,516 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.delivery;
+
+import com.cisco.gerrit.plugins.slack.util.Utf8Buffer;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append-only journal of the messages waiting to be published, so that they survive a restart of
+ * Gerrit or a reload of the plugin.
+ *
+ * <p>The journal is split into numbered segment files. Each record is written as a one byte type,
+ * the length and the CRC32 of its body, followed by the body. An entry record holds the sequence
+ * number, project, webhook URL, channel and message of an entry; an acknowledgement record holds
+ * the sequence number of a published entry. Records are written to the OS on append and forced to
+ * disk in batches by sync(), so a crash loses at most the records appended since the last sync.
+ *
+ * <p>Segments are only ever deleted from the head of the journal, once compact() copied their
+ * unacknowledged entries to the current segment. That way an acknowledgement record is never
+ * deleted before the entry it refers to.
+ *
+ * <p>An open journal holds an exclusive lock on the directory, so that it is never replayed or
+ * compacted by two instances of the plugin at once, for instance while the plugin is reloaded.
+ */
+public class Outbox {
+  /** The class logger instance. */
+  private static final Logger LOGGER = LoggerFactory.getLogger(Outbox.class);
+
+  private static final String SEGMENT_SUFFIX = ".seg";
+
+  /** The file locked while the journal is open. */
+  private static final String LOCK_FILE = "lock";
+
+  private static final byte ENTRY = 1;
+  private static final byte ACK = 2;
+
+  /** The size of the type, length and CRC32 preceding the body of each record. */
+  private static final int HEADER_SIZE = 9;
+
+  private final Path directory;
+  private final long segmentSize;
+
+  private final TreeMap<Long, Segment> segments;
+  private final Map<Long, Segment> segmentOf;
+
+  private FileChannel lockChannel;
+  private Segment current;
+  private FileChannel channel;
+  private long nextSequence;
+  private boolean dirty;
+
+  /**
+   * Creates a new Outbox. The journal isn't read until it is opened.
+   *
+   * @param directory The directory holding the segment files.
+   * @param segmentSize The size in bytes after which a new segment is started.
+   */
+  public Outbox(Path directory, long segmentSize) {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.segments = new TreeMap<>();
+    this.segmentOf = new HashMap<>();
+  }
+
+  /**
+   * Opens the journal, replaying the existing segments, unless it is still open elsewhere.
+   *
+   * @return The unacknowledged entries, in the order they were appended; null if the journal is
+   *     locked by another instance of the plugin.
+   * @throws IOException If the journal couldn't be read or a new segment couldn't be started.
+   */
+  public synchronized List<OutboxEntry> open() throws IOException {
+    Files.createDirectories(directory);
+
+    if (!lock()) {
+      return null;
+    }
+
+    try {
+      return readSegments();
+    } catch (IOException | RuntimeException e) {
+      unlock();
+      throw e;
+    }
+  }
+
+  /**
+   * Takes the lock of the journal directory.
+   *
+   * @return true, if the lock is held; false if another instance of the plugin holds it.
+   */
+  private boolean lock() throws IOException {
+    lockChannel =
+        FileChannel.open(
+            directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+
+    FileLock lock;
+    try {
+      lock = lockChannel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      // Held by another instance within this JVM
+      lock = null;
+    }
+
+    if (lock == null) {
+      lockChannel.close();
+      lockChannel = null;
+      return false;
+    }
+
+    return true;
+  }
+
+  private void unlock() throws IOException {
+    if (lockChannel != null) {
+      // Closing the channel releases the lock
+      lockChannel.close();
+      lockChannel = null;
+    }
+  }
+
+  /** Reads the existing segments and starts a new one. */
+  private List<OutboxEntry> readSegments() throws IOException {
+    TreeMap<Long, Path> files;
+    files = new TreeMap<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+      for (Path file : stream) {
+        String name;
+        name = file.getFileName().toString();
+        try {
+          files.put(
+              Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), file);
+        } catch (NumberFormatException e) {
+          LOGGER.warn("Ignoring unexpected outbox file " + file);
+        }
+      }
+    }
+
+    TreeMap<Long, OutboxEntry> pending;
+    pending = new TreeMap<>();
+    for (Map.Entry<Long, Path> file : files.entrySet()) {
+      Segment segment;
+      segment = new Segment(file.getKey(), file.getValue());
+      segments.put(segment.id, segment);
+      replay(segment, pending);
+    }
+
+    // Later copies of an entry made by compact() supersede the earlier ones
+    for (OutboxEntry entry : pending.values()) {
+      segmentOf.get(entry.getSequence()).pending.put(entry.getSequence(), entry);
+    }
+    segmentOf.keySet().retainAll(pending.keySet());
+
+    startSegment(files.isEmpty() ? 0 : files.lastKey() + 1);
+    deleteAcknowledgedSegments();
+
+    return new ArrayList<>(pending.values());
+  }
+
+  /**
+   * Appends a new entry to the journal.
+   *
+   * @return The appended entry.
+   * @throws IOException If the entry couldn't be written.
+   */
+  public synchronized OutboxEntry append(
+      String project, String webhookUrl, String channel, String message) throws IOException {
+    return append(
+        project, webhookUrl, channel, Utf8Buffer.wrap(message.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * Appends a new entry to the journal, writing the already encoded message as is.
+   *
+   * @return The appended entry.
+   * @throws IOException If the entry couldn't be written.
+   */
+  public synchronized OutboxEntry append(
+      String project, String webhookUrl, String channel, Utf8Buffer message) throws IOException {
+    if (this.channel == null) {
+      throw new IOException("The outbox isn't open");
+    }
+
+    OutboxEntry entry;
+    entry = new OutboxEntry(nextSequence++, project, webhookUrl, channel, message);
+
+    write(entry);
+    return entry;
+  }
+
+  /**
+   * Acknowledges that an entry has been published, so that it isn't replayed anymore.
+   *
+   * @param entry The published entry.
+   * @throws IOException If the acknowledgement couldn't be written.
+   */
+  public synchronized void acknowledge(OutboxEntry entry) throws IOException {
+    if (channel == null) {
+      // Closed, the entry is replayed by the next instance holding the journal
+      return;
+    }
+
+    Segment segment;
+    segment = segmentOf.remove(entry.getSequence());
+    if (segment == null) {
+      return;
+    }
+    segment.pending.remove(entry.getSequence());
+
+    ByteBuffer body;
+    body = ByteBuffer.allocate(Long.BYTES);
+    body.putLong(entry.getSequence());
+    body.flip();
+
+    writeRecord(ACK, body);
+  }
+
+  /**
+   * Forces the records appended since the last sync to disk.
+   *
+   * @throws IOException If the segment couldn't be synced.
+   */
+  public synchronized void sync() throws IOException {
+    if (dirty && channel != null) {
+      channel.force(false);
+      dirty = false;
+    }
+  }
+
+  /**
+   * Deletes the segments preceding the current one, after copying their unacknowledged entries to
+   * the current segment.
+   *
+   * @throws IOException If an entry couldn't be copied or a segment couldn't be deleted.
+   */
+  public synchronized void compact() throws IOException {
+    if (channel == null) {
+      return;
+    }
+
+    List<OutboxEntry> copies;
+    copies = new ArrayList<>();
+    for (Segment segment : segments.headMap(current.id).values()) {
+      copies.addAll(segment.pending.values());
+    }
+    if (copies.isEmpty()) {
+      deleteAcknowledgedSegments();
+      return;
+    }
+
+    for (OutboxEntry entry : copies) {
+      segmentOf.get(entry.getSequence()).pending.remove(entry.getSequence());
+      write(entry);
+    }
+
+    // The copies have to be on disk before the originals are deleted
+    sync();
+    deleteAcknowledgedSegments();
+  }
+
+  /**
+   * Syncs and closes the current segment, and releases the lock of the journal.
+   *
+   * @throws IOException If the segment couldn't be synced or closed.
+   */
+  public synchronized void close() throws IOException {
+    try {
+      closeSegment();
+    } finally {
+      unlock();
+    }
+  }
+
+  private void closeSegment() throws IOException {
+    if (channel == null) {
+      return;
+    }
+
+    try {
+      sync();
+    } finally {
+      channel.close();
+      channel = null;
+    }
+  }
+
+  /** Returns the number of entries that haven't been acknowledged yet. */
+  public synchronized int size() {
+    return segmentOf.size();
+  }
+
+  private void write(OutboxEntry entry) throws IOException {
+    byte[] project;
+    project = entry.getProject().getBytes(StandardCharsets.UTF_8);
+    byte[] webhookUrl;
+    webhookUrl = entry.getWebhookUrl().getBytes(StandardCharsets.UTF_8);
+    byte[] channel;
+    channel = entry.getChannel().getBytes(StandardCharsets.UTF_8);
+    Utf8Buffer message;
+    message = entry.getPayload();
+
+    // The message is written from its own buffer rather than copied into the body
+    ByteBuffer body;
+    body =
+        ByteBuffer.allocate(
+            Long.BYTES + 4 * Integer.BYTES + project.length + webhookUrl.length + channel.length);
+    body.putLong(entry.getSequence());
+    putBytes(body, project);
+    putBytes(body, webhookUrl);
+    putBytes(body, channel);
+    body.putInt(message.length());
+    body.flip();
+
+    writeRecord(ENTRY, body, message.asByteBuffer());
+
+    current.pending.put(entry.getSequence(), entry);
+    segmentOf.put(entry.getSequence(), current);
+  }
+
+  /** Writes a record whose body is made of the given buffers, ready to be read. */
+  private void writeRecord(byte type, ByteBuffer... body) throws IOException {
+    if (current.size >= segmentSize) {
+      startSegment(current.id + 1);
+    }
+
+    CRC32 crc;
+    crc = new CRC32();
+    int length;
+    length = 0;
+    for (ByteBuffer part : body) {
+      length += part.remaining();
+      crc.update(part.duplicate());
+    }
+
+    ByteBuffer header;
+    header = ByteBuffer.allocate(HEADER_SIZE);
+    header.put(type);
+    header.putInt(length);
+    header.putInt((int) crc.getValue());
+    header.flip();
+
+    long size;
+    size = header.remaining() + (long) length;
+
+    ByteBuffer[] record;
+    record = new ByteBuffer[body.length + 1];
+    record[0] = header;
+    System.arraycopy(body, 0, record, 1, body.length);
+
+    long written;
+    written = 0;
+    while (written < size) {
+      written += channel.write(record);
+    }
+
+    current.size += size;
+    dirty = true;
+  }
+
+  private void startSegment(long id) throws IOException {
+    closeSegment();
+
+    current = new Segment(id, directory.resolve(String.format("%019d%s", id, SEGMENT_SUFFIX)));
+    channel =
+        FileChannel.open(
+            current.path,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+    segments.put(current.id, current);
+  }
+
+  /** Deletes the segments at the head of the journal that have no pending entries anymore. */
+  private void deleteAcknowledgedSegments() throws IOException {
+    while (segments.firstKey() < current.id && segments.firstEntry().getValue().pending.isEmpty()) {
+      Files.deleteIfExists(segments.pollFirstEntry().getValue().path);
+    }
+  }
+
+  /**
+   * Reads the records of a segment, stopping at the first incomplete or corrupt record, which is
+   * what a crash while appending leaves behind.
+   */
+  private void replay(Segment segment, TreeMap<Long, OutboxEntry> pending) throws IOException {
+    long remaining;
+    remaining = Files.size(segment.path);
+
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(segment.path)))) {
+      while (true) {
+        int type;
+        type = in.read();
+        if (type < 0) {
+          return;
+        }
+
+        int length;
+        length = in.readInt();
+        int checksum;
+        checksum = in.readInt();
+        remaining -= HEADER_SIZE + (long) length;
+        if (length < Long.BYTES || remaining < 0) {
+          LOGGER.warn("Incomplete record at the end of outbox segment " + segment.path);
+          return;
+        }
+
+        byte[] data;
+        data = new byte[length];
+        in.readFully(data);
+
+        CRC32 crc;
+        crc = new CRC32();
+        crc.update(data);
+        if ((int) crc.getValue() != checksum) {
+          LOGGER.warn("Corrupt record in outbox segment " + segment.path);
+          return;
+        }
+
+        ByteBuffer body;
+        body = ByteBuffer.wrap(data);
+
+        long sequence;
+        sequence = body.getLong();
+        nextSequence = Math.max(nextSequence, sequence + 1);
+
+        if (type == ENTRY) {
+          pending.put(
+              sequence,
+              new OutboxEntry(
+                  sequence,
+                  getString(body),
+                  getString(body),
+                  getString(body),
+                  Utf8Buffer.wrap(getBytes(body))));
+          segmentOf.put(sequence, segment);
+        } else if (type == ACK) {
+          pending.remove(sequence);
+        } else {
+          LOGGER.warn("Unknown record type " + type + " in outbox segment " + segment.path);
+          return;
+        }
+      }
+    } catch (EOFException e) {
+      LOGGER.warn("Incomplete record at the end of outbox segment " + segment.path);
+    } catch (RuntimeException e) {
+      LOGGER.warn("Unreadable record in outbox segment " + segment.path, e);
+    }
+  }
+
+  private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+    buffer.putInt(bytes.length);
+    buffer.put(bytes);
+  }
+
+  private static byte[] getBytes(ByteBuffer buffer) {
+    byte[] bytes;
+    bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+
+    return bytes;
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    return new String(getBytes(buffer), StandardCharsets.UTF_8);
+  }
+
+  /** A segment file of the journal, along with its entries that haven't been acknowledged yet. */
+  private static class Segment {
+    private final long id;
+    private final Path path;
+    private final Map<Long, OutboxEntry> pending;
+    private long size;
+
+    Segment(long id, Path path) {
+      this.id = id;
+      this.path = path;
+      this.pending = new LinkedHashMap<>();
+    }
+  }
+}
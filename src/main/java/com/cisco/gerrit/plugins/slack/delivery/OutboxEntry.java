@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.delivery;
+
+import com.cisco.gerrit.plugins.slack.util.Utf8Buffer;
+
+/** A rendered message stored in the Outbox until it has been published. */
+public final class OutboxEntry {
+  private final long sequence;
+  private final String project;
+  private final String webhookUrl;
+  private final String channel;
+  private final Utf8Buffer message;
+
+  OutboxEntry(
+      long sequence, String project, String webhookUrl, String channel, Utf8Buffer message) {
+    this.sequence = sequence;
+    this.project = project;
+    this.webhookUrl = webhookUrl;
+    this.channel = channel;
+    this.message = message;
+  }
+
+  public long getSequence() {
+    return sequence;
+  }
+
+  public String getProject() {
+    return project;
+  }
+
+  public String getWebhookUrl() {
+    return webhookUrl;
+  }
+
+  public String getChannel() {
+    return channel;
+  }
+
+  /**
+   * Gets the message, decoding it.
+   *
+   * @return The message.
+   */
+  public String getMessage() {
+    return message.toString();
+  }
+
+  /**
+   * Gets the UTF-8 encoded message, as it is published.
+   *
+   * @return The message, released once the entry is acknowledged.
+   */
+  public Utf8Buffer getPayload() {
+    return message;
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.delivery;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket rate limiter per webhook URL, keeping the deliveries under the posting rate Slack
+ * allows for incoming webhooks. The limiter never blocks: a caller reserves a token and is told how
+ * long to wait before using it, so that the wait can be scheduled on a timer.
+ */
+class RateLimiter {
+  private final double tokensPerNano;
+  private final int burst;
+  private final LongSupplier clock;
+  private final ConcurrentMap<String, Bucket> buckets;
+
+  /**
+   * Creates a new RateLimiter.
+   *
+   * @param rate The number of messages allowed per minute for each webhook URL.
+   * @param burst The number of messages that may be published at once after a quiet period.
+   */
+  RateLimiter(int rate, int burst) {
+    this(rate, burst, System::nanoTime);
+  }
+
+  RateLimiter(int rate, int burst, LongSupplier clock) {
+    this.tokensPerNano = rate / (double) TimeUnit.MINUTES.toNanos(1);
+    this.burst = burst;
+    this.clock = clock;
+    this.buckets = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Reserves a token for publishing to the given webhook URL.
+   *
+   * @param webhookUrl The webhook URL to publish to.
+   * @return The time in milliseconds to wait before publishing, 0 if the message may be published
+   *     right away.
+   */
+  long reserve(String webhookUrl) {
+    return buckets.computeIfAbsent(webhookUrl, k -> new Bucket(clock.getAsLong())).reserve();
+  }
+
+  /**
+   * The tokens of a webhook URL. The token count goes negative when tokens are reserved ahead of
+   * time, so that later reservations queue up behind the earlier ones.
+   */
+  private class Bucket {
+    private double tokens;
+    private long refilled;
+
+    Bucket(long now) {
+      this.tokens = burst;
+      this.refilled = now;
+    }
+
+    synchronized long reserve() {
+      long now;
+      now = clock.getAsLong();
+
+      tokens = Math.min(burst, tokens + (now - refilled) * tokensPerNano);
+      refilled = now;
+      tokens--;
+
+      if (tokens >= 0) {
+        return 0;
+      }
+      return (long) Math.ceil(-tokens / tokensPerNano / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.delivery;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual thread executors when the running JVM supports them. The plugin is built for
+ * older JVMs, so the virtual thread API is only reached via reflection.
+ */
+final class VirtualThreads {
+  // Made private to prevent instantiation.
+  private VirtualThreads() {}
+
+  /**
+   * Creates an executor that starts a new virtual thread for each task.
+   *
+   * @param namePrefix The prefix of the virtual thread names.
+   * @return The executor, null if the JVM doesn't support virtual threads.
+   */
+  static ExecutorService newExecutor(String namePrefix) {
+    try {
+      Class<?> builderClass;
+      builderClass = Class.forName("java.lang.Thread$Builder");
+
+      Object builder;
+      builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder =
+          builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+
+      ThreadFactory factory;
+      factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+
+      return (ExecutorService)
+          Executors.class
+              .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+              .invoke(null, factory);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // Either a JVM without virtual threads or one that still has them as a preview feature
+      return null;
+    }
+  }
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+/**
+ * Writes a Block Kit payload straight into a StringBuilder as its blocks are started and ended,
+ * without building any object tree of the message first. Texts are mrkdwn, and the unescaped values
+ * given to the writer are trimmed and escaped by the JsonEscaper, which also escapes the characters
+ * that have a meaning in mrkdwn: &amp;, &lt; and &gt;.
+ *
+ * <p>Slack rejects a section whose text is longer than 3000 characters, counted once the JSON
+ * escapes are decoded but with the entities as written. The text of a section is cut with an
+ * ellipsis once it reaches that length, in between escape sequences, entities and surrogate pairs,
+ * and whatever is appended to the section afterwards is dropped.
+ *
+ * <p>Calls must follow the structure of the payload, e.g.
+ *
+ * <pre>
+ * writer.begin(channel).startText().text(fallback).endText();
+ * writer.startSection().bold(title).endSection();
+ * writer.startContext().startElement().text(project).endElement().endContext();
+ * writer.end();
+ * </pre>
+ */
+final class BlockKitWriter {
+  /** The most characters Slack accepts in the text of a section block. */
+  static final int MAX_SECTION_LENGTH = 3000;
+
+  private final StringBuilder out;
+
+  private int blocks;
+  private int elements;
+  private int remaining = Integer.MAX_VALUE;
+  private boolean truncated;
+
+  /**
+   * Creates a new writer.
+   *
+   * @param out The builder to write the payload to.
+   */
+  BlockKitWriter(StringBuilder out) {
+    this.out = out;
+  }
+
+  /**
+   * Starts the payload.
+   *
+   * @param channel The channel to publish to, without its leading #.
+   * @return This writer.
+   */
+  BlockKitWriter begin(String channel) {
+    out.append("{\"channel\":\"#");
+    JsonEscaper.append(out, channel);
+    out.append('"');
+
+    return this;
+  }
+
+  /**
+   * Starts the top level text of the payload, shown in notifications and by clients that can't
+   * display blocks.
+   *
+   * @return This writer.
+   */
+  BlockKitWriter startText() {
+    out.append(",\"text\":\"");
+
+    return this;
+  }
+
+  /**
+   * Ends the top level text of the payload.
+   *
+   * @return This writer.
+   */
+  BlockKitWriter endText() {
+    out.append('"');
+
+    return this;
+  }
+
+  /**
+   * Starts a section block with a mrkdwn text.
+   *
+   * @return This writer.
+   */
+  BlockKitWriter startSection() {
+    startBlock();
+    out.append("{\"type\":\"section\",\"text\":{\"type\":\"mrkdwn\",\"text\":\"");
+    remaining = MAX_SECTION_LENGTH;
+
+    return this;
+  }
+
+  /**
+   * Ends the current section block.
+   *
+   * @return This writer.
+   */
+  BlockKitWriter endSection() {
+    out.append("\"}}");
+    remaining = Integer.MAX_VALUE;
+    truncated = false;
+
+    return this;
+  }
+
+  /**
+   * Starts a context block, whose elements are written in between.
+   *
+   * @return This writer.
+   */
+  BlockKitWriter startContext() {
+    startBlock();
+    out.append("{\"type\":\"context\",\"elements\":[");
+    elements = 0;
+
+    return this;
+  }
+
+  /**
+   * Starts a mrkdwn element of the current context block.
+   *
+   * @return This writer.
+   */
+  BlockKitWriter startElement() {
+    if (elements++ > 0) {
+      out.append(',');
+    }
+    out.append("{\"type\":\"mrkdwn\",\"text\":\"");
+
+    return this;
+  }
+
+  /**
+   * Ends the current element.
+   *
+   * @return This writer.
+   */
+  BlockKitWriter endElement() {
+    out.append("\"}");
+
+    return this;
+  }
+
+  /**
+   * Ends the current context block.
+   *
+   * @return This writer.
+   */
+  BlockKitWriter endContext() {
+    out.append("]}");
+
+    return this;
+  }
+
+  /**
+   * Appends text to the current text, section or element.
+   *
+   * @param value The unescaped text, trimmed, null appending nothing.
+   * @return This writer.
+   */
+  BlockKitWriter text(String value) {
+    if (!truncated) {
+      int start;
+      start = out.length();
+      JsonEscaper.append(out, value);
+      fit(start, 0);
+    }
+
+    return this;
+  }
+
+  /**
+   * Appends a number to the current text, section or element.
+   *
+   * @param value The number.
+   * @return This writer.
+   */
+  BlockKitWriter text(int value) {
+    if (!truncated) {
+      int start;
+      start = out.length();
+      out.append(value);
+      fit(start, 0);
+    }
+
+    return this;
+  }
+
+  /**
+   * Appends text that was already escaped, e.g. separators.
+   *
+   * @param value The escaped text, appended as is.
+   * @return This writer.
+   */
+  BlockKitWriter raw(String value) {
+    if (!truncated) {
+      int start;
+      start = out.length();
+      out.append(value);
+      fit(start, 0);
+    }
+
+    return this;
+  }
+
+  /**
+   * Appends bold text to the current text, section or element.
+   *
+   * @param value The unescaped text, trimmed.
+   * @return This writer.
+   */
+  BlockKitWriter bold(String value) {
+    if (!truncated && remaining > 2) {
+      out.append('*');
+      remaining--;
+
+      // Keeps room for the closing asterisk, even if the text is cut
+      int start;
+      start = out.length();
+      JsonEscaper.append(out, value);
+      fit(start, 1);
+
+      out.append('*');
+      remaining--;
+    }
+
+    return this;
+  }
+
+  /**
+   * Starts a link, whose label is appended in between.
+   *
+   * @param url The unescaped URL of the link.
+   * @return This writer.
+   */
+  BlockKitWriter startLink(String url) {
+    int start;
+    start = out.length();
+    out.append('<');
+    JsonEscaper.append(out, url);
+    out.append('|');
+
+    // Counted, but never cut
+    if (remaining != Integer.MAX_VALUE) {
+      remaining -= out.length() - start + 1;
+    }
+
+    return this;
+  }
+
+  /**
+   * Ends the current link.
+   *
+   * @return This writer.
+   */
+  BlockKitWriter endLink() {
+    out.append('>');
+
+    return this;
+  }
+
+  /** Ends the payload. */
+  void end() {
+    if (blocks > 0) {
+      out.append(']');
+    }
+    out.append('}');
+  }
+
+  /**
+   * Counts the characters appended to the current section since the given index, cutting them with
+   * an ellipsis if they don't fit in what is left of the section's length.
+   *
+   * @param start The index of the first character appended.
+   * @param reserve The number of characters to keep for what has to follow, e.g. a closing
+   *     asterisk.
+   */
+  private void fit(int start, int reserve) {
+    if (remaining == Integer.MAX_VALUE) {
+      return;
+    }
+
+    int limit;
+    limit = remaining - reserve;
+
+    int length;
+    length = 0;
+    int cut;
+    cut = -1;
+
+    int end;
+    end = out.length();
+    int i;
+    i = start;
+    while (i < end) {
+      char c;
+      c = out.charAt(i);
+
+      // The number of chars of the escaped output that make a single unit, which is never cut
+      int units;
+      int chars;
+      if (c == '\\') {
+        units = out.charAt(i + 1) == 'u' ? 6 : 2;
+        chars = 1;
+      } else if (c == '&') {
+        units = out.indexOf(";", i) - i + 1;
+        chars = units;
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < end
+          && Character.isLowSurrogate(out.charAt(i + 1))) {
+        units = 2;
+        chars = 2;
+      } else {
+        units = 1;
+        chars = 1;
+      }
+
+      // The last place where the text can be cut with room left for the ellipsis
+      if (cut < 0 && length + chars > limit - MessageSummarizer.ELLIPSIS.length()) {
+        cut = i;
+      }
+      length += chars;
+      i += units;
+    }
+
+    if (length <= limit) {
+      remaining -= length;
+      return;
+    }
+
+    out.setLength(cut);
+    out.append(MessageSummarizer.ELLIPSIS);
+    remaining = reserve;
+    truncated = true;
+  }
+
+  /** Opens the blocks array before the first block, separates the following ones. */
+  private void startBlock() {
+    out.append(blocks++ > 0 ? "," : ",\"blocks\":[");
+  }
+}
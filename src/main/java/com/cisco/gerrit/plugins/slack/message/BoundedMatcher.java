@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Matches the ignore patterns configured by project owners against event fields within a bounded
+ * number of steps. A pattern prone to catastrophic backtracking, such as (.*)*WIP, could otherwise
+ * pin a Gerrit thread for minutes on a large commit message.
+ *
+ * <p>The steps are counted as the characters read by the regex engine, so the budget grows with the
+ * input length, allowing any reasonable pattern to finish. A match giving up is treated as no
+ * match, so the message is published rather than silently dropped.
+ */
+final class BoundedMatcher {
+  /** The class logger instance. */
+  private static final Logger LOGGER = LoggerFactory.getLogger(BoundedMatcher.class);
+
+  /** The number of steps any input may take, whatever its length. */
+  static final long MIN_STEPS = 1_000_000;
+
+  /** The number of steps allowed for each character of the input. */
+  static final long STEPS_PER_CHAR = 16;
+
+  // Made private to prevent instantiation.
+  private BoundedMatcher() {}
+
+  /**
+   * Matches the whole input against the pattern, giving up once the step budget is spent.
+   *
+   * @param pattern The pattern.
+   * @param input The input.
+   * @return Whether the pattern matches, false if matching gave up.
+   */
+  static boolean matches(Pattern pattern, String input) {
+    return matches(pattern, input, Math.max(MIN_STEPS, STEPS_PER_CHAR * input.length()));
+  }
+
+  /**
+   * Matches the whole input against the pattern, giving up once the step budget is spent.
+   *
+   * @param pattern The pattern.
+   * @param input The input.
+   * @param budget The number of characters the regex engine may read.
+   * @return Whether the pattern matches, false if matching gave up.
+   */
+  static boolean matches(Pattern pattern, String input, long budget) {
+    try {
+      return pattern.matcher(new BudgetedInput(input, budget)).matches();
+    } catch (BudgetExceededException e) {
+      LOGGER.warn(
+          "Gave up matching the pattern {} after {} steps on {} characters",
+          pattern,
+          budget,
+          input.length());
+    } catch (StackOverflowError e) {
+      // Deeply nested repetitions recurse once per character
+      LOGGER.warn(
+          "Gave up matching the pattern {} on {} characters, too deeply nested",
+          pattern,
+          input.length());
+    }
+    return false;
+  }
+
+  /** An input counting the characters read and failing once the budget is spent. */
+  private static class BudgetedInput implements CharSequence {
+    private final String input;
+    private long remaining;
+
+    BudgetedInput(String input, long budget) {
+      this.input = input;
+      this.remaining = budget;
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (--remaining < 0) {
+        throw new BudgetExceededException();
+      }
+      return input.charAt(index);
+    }
+
+    @Override
+    public int length() {
+      return input.length();
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return input.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+      return input;
+    }
+  }
+
+  /** Thrown out of the regex engine once the budget is spent. */
+  private static class BudgetExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    BudgetExceededException() {
+      // No stack trace, it is always caught right away
+      super(null, null, false, false);
+    }
+  }
+}
@@ -17,9 +17,10 @@
 
 package com.cisco.gerrit.plugins.slack.message;
 
-import static org.apache.commons.lang3.StringUtils.substringBefore;
-
 import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.gerrit.server.data.ChangeAttribute;
 import com.google.gerrit.server.events.ChangeMergedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +36,7 @@ public class ChangeMergedMessageGenerator implements MessageGenerator {
 
   private ProjectConfig config;
   private ChangeMergedEvent event;
+  private Supplier<ChangeAttribute> change;
 
   /**
    * Creates a new ChangeMergedMessageGenerator instance using the provided ChangeMergedEvent
@@ -48,6 +50,7 @@ public class ChangeMergedMessageGenerator implements MessageGenerator {
     }
 
     this.event = event;
+    this.change = Suppliers.memoize(() -> event.change.get());
     this.config = config;
   }
 
@@ -57,28 +60,29 @@ public class ChangeMergedMessageGenerator implements MessageGenerator {
   }
 
   @Override
-  public String generate() {
-    String message;
-    message = "";
+  public MessageTemplate generateTemplate() {
+    MessageTemplate template;
+    template = null;
 
     try {
-      MessageTemplate template;
       template = new MessageTemplate();
 
+      template.setLayout(config.getMessageTemplate());
+      template.setFormat(config.getFormat());
       template.setChannel(config.getChannel());
       template.setName(event.submitter.get().name);
       template.setAction("merged");
-      template.setNumber(event.change.get().number);
-      template.setProject(event.change.get().project);
-      template.setBranch(event.change.get().branch);
-      template.setUrl(event.change.get().url);
-      template.setTitle(substringBefore(event.change.get().commitMessage, "\n"));
-
-      message = template.render();
+      template.setNumber(change.get().number);
+      template.setProject(change.get().project);
+      template.setBranch(change.get().branch);
+      template.setUrl(change.get().url);
+      template.setTitle(
+          MessageSummarizer.title(change.get().commitMessage, config.getMessageMaxBytes()));
     } catch (Exception e) {
       LOGGER.error("Error generating message: " + e.getMessage(), e);
+      template = null;
     }
 
-    return message;
+    return template;
   }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A MessageGenerator merging the messages of several events about the same change, such as a new
+ * patch set along with the reviewers added to it, into a single message.
+ */
+public class CoalescedMessageGenerator implements MessageGenerator {
+  private final ProjectConfig config;
+  private final List<MessageGenerator> generators;
+  private List<MessageGenerator> published;
+
+  /**
+   * Creates a new, empty CoalescedMessageGenerator.
+   *
+   * @param config The config of the project, whose limits bound the merged messages.
+   */
+  public CoalescedMessageGenerator(ProjectConfig config) {
+    this.config = config;
+    this.generators = new ArrayList<>();
+  }
+
+  /**
+   * Adds the generator of the next event about the change.
+   *
+   * @param generator The MessageGenerator of the event.
+   */
+  public void add(MessageGenerator generator) {
+    generators.add(generator);
+  }
+
+  /** Returns the number of events merged. */
+  public int size() {
+    return generators.size();
+  }
+
+  @Override
+  public boolean shouldPublish() {
+    published = new ArrayList<>();
+    for (MessageGenerator generator : generators) {
+      if (generator.shouldPublish()) {
+        published.add(generator);
+      }
+    }
+
+    return !published.isEmpty();
+  }
+
+  @Override
+  public MessageTemplate generateTemplate() {
+    if (published == null && !shouldPublish()) {
+      return null;
+    }
+
+    List<MessageTemplate> templates;
+    templates = new ArrayList<>();
+    for (MessageGenerator generator : published) {
+      MessageTemplate template;
+      template = generator.generateTemplate();
+      if (template != null) {
+        templates.add(template);
+      }
+    }
+
+    if (templates.isEmpty()) {
+      return null;
+    }
+    if (templates.size() == 1) {
+      return templates.get(0);
+    }
+    return MessageTemplate.coalesce(
+        templates, config.getMessageMaxBytes(), config.getMessageMaxLines());
+  }
+}
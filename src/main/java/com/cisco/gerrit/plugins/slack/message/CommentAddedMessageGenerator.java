@@ -17,12 +17,11 @@
 
 package com.cisco.gerrit.plugins.slack.message;
 
-import static org.apache.commons.lang3.StringUtils.substringBefore;
-
 import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.gerrit.server.data.ChangeAttribute;
 import com.google.gerrit.server.events.CommentAddedEvent;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +38,7 @@ public class CommentAddedMessageGenerator implements MessageGenerator {
 
   private ProjectConfig config;
   private CommentAddedEvent event;
+  private Supplier<ChangeAttribute> change;
 
   /**
    * Creates a new CommentAddedMessageGenerator instance using the provided CommentAddedEvent
@@ -52,6 +52,7 @@ public class CommentAddedMessageGenerator implements MessageGenerator {
     }
 
     this.event = event;
+    this.change = Suppliers.memoize(() -> event.change.get());
     this.config = config;
   }
 
@@ -63,7 +64,7 @@ public class CommentAddedMessageGenerator implements MessageGenerator {
 
     try {
       ChangeAttribute change;
-      change = event.change.get();
+      change = this.change.get();
       if (config.getIgnorePrivatePatchSet() && Boolean.TRUE.equals(change.isPrivate)) {
         return false;
       }
@@ -74,52 +75,55 @@ public class CommentAddedMessageGenerator implements MessageGenerator {
       LOGGER.warn("Error checking private and work-in-progress status", e);
     }
 
+    Pattern pattern;
+    pattern = config.getIgnoreCommentAuthorPattern();
+    if (pattern == null) {
+      return true;
+    }
+
     boolean result;
     result = true;
 
     try {
-      Pattern pattern;
-      pattern = Pattern.compile(config.getIgnoreCommentAuthor(), Pattern.DOTALL);
-
-      Matcher matcher;
-      matcher = pattern.matcher(event.author.get().username);
-
       // If the ignore pattern matches, publishing should not happen
-      result = !matcher.matches();
+      result = !BoundedMatcher.matches(pattern, event.author.get().username);
     } catch (Exception e) {
-      LOGGER.warn("The specified ignore-comment-author pattern was invalid", e);
+      LOGGER.warn("Error matching the ignore-comment-author pattern", e);
     }
 
     return result;
   }
 
   @Override
-  public String generate() {
-    String message;
-    message = "";
-
-    LOGGER.info(substringBefore(event.change.get().commitMessage, "\n"));
-    LOGGER.info(event.comment);
+  public MessageTemplate generateTemplate() {
+    MessageTemplate template;
+    template = null;
 
     try {
-      MessageTemplate template;
       template = new MessageTemplate();
 
+      template.setLayout(config.getMessageTemplate());
+      template.setFormat(config.getFormat());
       template.setChannel(config.getChannel());
       template.setName(event.author.get().name);
       template.setAction("commented on");
-      template.setProject(event.change.get().project);
-      template.setBranch(event.change.get().branch);
-      template.setUrl(event.change.get().url);
-      template.setNumber(event.change.get().number);
-      template.setTitle(substringBefore(event.change.get().commitMessage, "\n"));
-      template.setMessage(event.comment);
-
-      message = template.render();
+      template.setProject(change.get().project);
+      template.setBranch(change.get().branch);
+      template.setUrl(change.get().url);
+      template.setNumber(change.get().number);
+      template.setTitle(
+          MessageSummarizer.title(change.get().commitMessage, config.getMessageMaxBytes()));
+      template.setMessage(
+          MessageSummarizer.summarize(
+              event.comment,
+              config.getMessageMaxBytes(),
+              config.getMessageMaxLines(),
+              change.get().url));
     } catch (Exception e) {
       LOGGER.error("Error generating message: " + e.getMessage(), e);
+      template = null;
     }
 
-    return message;
+    return template;
   }
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+import com.cisco.gerrit.plugins.slack.util.Utf8Buffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message template parsed into its literal text and placeholders, so that rendering it only
+ * appends strings. Templates use the positional placeholders of String.format, %1$s to %n$s, and %%
+ * for a literal percent sign.
+ *
+ * <p>Templates are JSON documents with the placeholders inside of their strings, so the arguments
+ * are trimmed and escaped by the JsonEscaper as they are appended.
+ */
+public final class CompiledTemplate {
+  /** The literal text preceding each placeholder, plus the text after the last one. */
+  private final String[] literals;
+
+  /** The zero based argument index of each placeholder. */
+  private final int[] placeholders;
+
+  private final int arity;
+
+  private CompiledTemplate(String[] literals, int[] placeholders) {
+    this.literals = literals;
+    this.placeholders = placeholders;
+
+    int max;
+    max = 0;
+    for (int placeholder : placeholders) {
+      max = Math.max(max, placeholder + 1);
+    }
+    this.arity = max;
+  }
+
+  /**
+   * Parses the given template.
+   *
+   * @param template The template.
+   * @return The parsed template.
+   * @throws IllegalArgumentException If the template contains anything but %n$s placeholders.
+   */
+  static CompiledTemplate parse(String template) {
+    List<String> literals;
+    literals = new ArrayList<>();
+    List<Integer> placeholders;
+    placeholders = new ArrayList<>();
+
+    StringBuilder literal;
+    literal = new StringBuilder();
+
+    int i;
+    i = 0;
+    while (i < template.length()) {
+      char c;
+      c = template.charAt(i++);
+      if (c != '%') {
+        literal.append(c);
+        continue;
+      }
+
+      if (i < template.length() && template.charAt(i) == '%') {
+        literal.append('%');
+        i++;
+        continue;
+      }
+
+      int start;
+      start = i;
+      while (i < template.length() && Character.isDigit(template.charAt(i))) {
+        i++;
+      }
+      if (i == start || !template.startsWith("$s", i)) {
+        throw new IllegalArgumentException(
+            "Unsupported placeholder at offset " + (start - 1) + ", only %n$s is supported");
+      }
+
+      int index;
+      index = Integer.parseInt(template.substring(start, i));
+      if (index < 1) {
+        throw new IllegalArgumentException("Invalid placeholder index " + index);
+      }
+      i += 2;
+
+      literals.add(literal.toString());
+      literal.setLength(0);
+      placeholders.add(index - 1);
+    }
+    literals.add(literal.toString());
+
+    int[] indexes;
+    indexes = new int[placeholders.size()];
+    for (int p = 0; p < indexes.length; p++) {
+      indexes[p] = placeholders.get(p);
+    }
+
+    return new CompiledTemplate(literals.toArray(new String[0]), indexes);
+  }
+
+  /**
+   * Gets the number of arguments the template refers to.
+   *
+   * @return The highest placeholder index.
+   */
+  int getArity() {
+    return arity;
+  }
+
+  /**
+   * Renders the template with the given arguments.
+   *
+   * @param args The unescaped arguments, the first one replacing %1$s, null ones rendered empty.
+   * @return The rendered template.
+   * @throws IllegalArgumentException If fewer arguments than the template refers to are given.
+   */
+  String render(String... args) {
+    StringBuilder builder;
+    builder = renderToBuilder(args);
+
+    String result;
+    result = builder.toString();
+    RenderBuffer.recycle(builder);
+
+    return result;
+  }
+
+  /**
+   * Renders the template with the given arguments, encoding it straight into a pooled buffer.
+   *
+   * @param args The unescaped arguments, the first one replacing %1$s, null ones rendered empty.
+   * @return The rendered template, to be released once published.
+   * @throws IllegalArgumentException If fewer arguments than the template refers to are given.
+   */
+  Utf8Buffer renderUtf8(String... args) {
+    StringBuilder builder;
+    builder = renderToBuilder(args);
+
+    Utf8Buffer result;
+    result = Utf8Buffer.encode(builder);
+    RenderBuffer.recycle(builder);
+
+    return result;
+  }
+
+  /** Renders the template into the builder of the current thread. */
+  private StringBuilder renderToBuilder(String... args) {
+    if (args.length < arity) {
+      throw new IllegalArgumentException(
+          "The template refers to " + arity + " arguments, " + args.length + " given");
+    }
+
+    StringBuilder builder;
+    builder = RenderBuffer.acquire();
+
+    for (int p = 0; p < placeholders.length; p++) {
+      builder.append(literals[p]);
+      JsonEscaper.append(builder, args[placeholders[p]]);
+    }
+    builder.append(literals[placeholders.length]);
+
+    return builder;
+  }
+}
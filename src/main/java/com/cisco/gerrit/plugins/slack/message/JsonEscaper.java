@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+/**
+ * Escapes message fields as the content of JSON strings, writing straight into the message being
+ * rendered. Besides what JSON requires, the characters Slack's mrkdwn format reserves for its
+ * control sequences, &amp;, &lt; and &gt;, are replaced by their HTML entities, as Slack asks for.
+ */
+final class JsonEscaper {
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  // Made private to prevent instantiation.
+  private JsonEscaper() {}
+
+  /**
+   * Appends the escaped value, trimmed of leading and trailing whitespace, in a single pass.
+   *
+   * @param builder The builder to append to.
+   * @param value The value to escape, nothing is appended if null.
+   */
+  static void append(StringBuilder builder, String value) {
+    if (value == null) {
+      return;
+    }
+
+    // Same bounds as String.trim()
+    int start;
+    start = 0;
+    int end;
+    end = value.length();
+    while (start < end && value.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && value.charAt(end - 1) <= ' ') {
+      end--;
+    }
+
+    // Copy runs of characters needing no escaping at once
+    int run;
+    run = start;
+    for (int i = start; i < end; i++) {
+      char c;
+      c = value.charAt(i);
+
+      String replacement;
+      switch (c) {
+        case '"':
+          replacement = "\\\"";
+          break;
+        case '\\':
+          replacement = "\\\\";
+          break;
+        case '\n':
+          replacement = "\\n";
+          break;
+        case '\r':
+          replacement = "\\r";
+          break;
+        case '\t':
+          replacement = "\\t";
+          break;
+        case '\b':
+          replacement = "\\b";
+          break;
+        case '\f':
+          replacement = "\\f";
+          break;
+        case '&':
+          replacement = "&amp;";
+          break;
+        case '<':
+          replacement = "&lt;";
+          break;
+        case '>':
+          replacement = "&gt;";
+          break;
+        default:
+          if (c < ' ' || isLoneSurrogate(value, i, c)) {
+            builder.append(value, run, i);
+            appendUnicodeEscape(builder, c);
+            run = i + 1;
+          } else if (Character.isHighSurrogate(c)) {
+            // Keep the pair together, the low surrogate is known to follow
+            i++;
+          }
+          continue;
+      }
+
+      builder.append(value, run, i).append(replacement);
+      run = i + 1;
+    }
+    builder.append(value, run, end);
+  }
+
+  /**
+   * Escapes the value, trimmed of leading and trailing whitespace.
+   *
+   * @param value The value to escape.
+   * @return The escaped value, an empty string if null.
+   */
+  static String escape(String value) {
+    StringBuilder builder;
+    builder = new StringBuilder(value != null ? value.length() + 16 : 0);
+    append(builder, value);
+
+    return builder.toString();
+  }
+
+  /**
+   * Whether the char at the given index is half a surrogate pair missing its other half, which
+   * can't be encoded in UTF-8 as is.
+   */
+  private static boolean isLoneSurrogate(String value, int index, char c) {
+    if (Character.isHighSurrogate(c)) {
+      return index + 1 >= value.length() || !Character.isLowSurrogate(value.charAt(index + 1));
+    }
+    return Character.isLowSurrogate(c);
+  }
+
+  private static void appendUnicodeEscape(StringBuilder builder, char c) {
+    builder
+        .append("\\u")
+        .append(HEX[(c >> 12) & 0xf])
+        .append(HEX[(c >> 8) & 0xf])
+        .append(HEX[(c >> 4) & 0xf])
+        .append(HEX[c & 0xf]);
+  }
+}
@@ -17,6 +17,8 @@
 
 package com.cisco.gerrit.plugins.slack.message;
 
+import com.cisco.gerrit.plugins.slack.util.Utf8Buffer;
+
 /**
  * Defines a simple base class for a message generators.
  *
@@ -30,10 +32,35 @@ public interface MessageGenerator {
    */
   boolean shouldPublish();
 
+  /**
+   * Generates the event specific message template, before it is rendered.
+   *
+   * @return The generated template, null if it could not be generated.
+   */
+  MessageTemplate generateTemplate();
+
   /**
    * Generates an event specific message suitable for publishing.
    *
    * @return The generated message.
    */
-  String generate();
+  default String generate() {
+    MessageTemplate template;
+    template = generateTemplate();
+
+    return template != null ? template.render() : "";
+  }
+
+  /**
+   * Generates an event specific message suitable for publishing, encoded straight into a pooled
+   * UTF-8 buffer rather than going through a String.
+   *
+   * @return The generated message, to be released once published.
+   */
+  default Utf8Buffer generateUtf8() {
+    MessageTemplate template;
+    template = generateTemplate();
+
+    return template != null ? template.renderUtf8() : Utf8Buffer.encode("");
+  }
 }
@@ -18,6 +18,7 @@
 package com.cisco.gerrit.plugins.slack.message;
 
 import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.google.common.collect.ImmutableMap;
 import com.google.gerrit.server.events.ChangeMergedEvent;
 import com.google.gerrit.server.events.CommentAddedEvent;
 import com.google.gerrit.server.events.Event;
@@ -25,16 +26,125 @@ import com.google.gerrit.server.events.PatchSetCreatedEvent;
 import com.google.gerrit.server.events.PrivateStateChangedEvent;
 import com.google.gerrit.server.events.ReviewerAddedEvent;
 import com.google.gerrit.server.events.WorkInProgressStateChangedEvent;
+import java.util.function.Predicate;
 
 /**
  * Factory used to create event specific MessageGenerator instances.
  *
+ * <p>Events are dispatched through a table mapping each supported event class to the method
+ * creating its MessageGenerator, along with the publish-on option enabling it. An event is looked
+ * up by its class and then its superclasses, a handful of hash lookups at most, so the dispatch
+ * cost stays the same no matter how many event types are supported.
+ *
  * @author Matthew Montgomery
  */
 public class MessageGeneratorFactory {
+  /** Creates the MessageGenerator for one specific event class. */
+  private interface Creator {
+    MessageGenerator create(Event event, ProjectConfig config);
+  }
+
+  /** A supported event class. */
+  private static final class EventType {
+    private final Predicate<ProjectConfig> publishOn;
+    private final Creator creator;
+
+    EventType(Predicate<ProjectConfig> publishOn, Creator creator) {
+      this.publishOn = publishOn;
+      this.creator = creator;
+    }
+  }
+
+  private static final EventType UNSUPPORTED =
+      new EventType(config -> false, (event, config) -> newInstance(event));
+
+  private static final ImmutableMap<Class<? extends Event>, EventType> EVENT_TYPES =
+      ImmutableMap.<Class<? extends Event>, EventType>builder()
+          .put(
+              PatchSetCreatedEvent.class,
+              new EventType(
+                  ProjectConfig::shouldPublishOnPatchSetCreated,
+                  (event, config) -> newInstance((PatchSetCreatedEvent) event, config)))
+          .put(
+              ChangeMergedEvent.class,
+              new EventType(
+                  ProjectConfig::shouldPublishOnChangeMerged,
+                  (event, config) -> newInstance((ChangeMergedEvent) event, config)))
+          .put(
+              CommentAddedEvent.class,
+              new EventType(
+                  ProjectConfig::shouldPublishOnCommentAdded,
+                  (event, config) -> newInstance((CommentAddedEvent) event, config)))
+          .put(
+              ReviewerAddedEvent.class,
+              new EventType(
+                  ProjectConfig::shouldPublishOnReviewerAdded,
+                  (event, config) -> newInstance((ReviewerAddedEvent) event, config)))
+          .put(
+              WorkInProgressStateChangedEvent.class,
+              new EventType(
+                  ProjectConfig::shouldPublishOnWipReady,
+                  (event, config) -> newInstance((WorkInProgressStateChangedEvent) event, config)))
+          .put(
+              PrivateStateChangedEvent.class,
+              new EventType(
+                  ProjectConfig::shouldPublishOnPrivateToPublic,
+                  (event, config) -> newInstance((PrivateStateChangedEvent) event, config)))
+          .build();
+
+  /**
+   * Resolves the EventType of an event class, walking up to its closest supported superclass. The
+   * result isn't cached in a ClassValue, which would attach the EventTypes to Gerrit's event
+   * classes and keep the class loader of the plugin alive after it is reloaded.
+   */
+  private static EventType lookup(Class<?> type) {
+    for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+      EventType eventType;
+      eventType = EVENT_TYPES.get(c);
+      if (eventType != null) {
+        return eventType;
+      }
+    }
+    return UNSUPPORTED;
+  }
+
   // Made private to prevent instantiation
   private MessageGeneratorFactory() {}
 
+  /**
+   * Whether a specific MessageGenerator exists for the given event.
+   *
+   * @param event An Event instance
+   * @return true, if the event is supported; otherwise false
+   */
+  public static boolean isSupported(Event event) {
+    return lookup(event.getClass()) != UNSUPPORTED;
+  }
+
+  /**
+   * Whether the given project config enables publishing for the type of the given event. Only the
+   * config and the event class are looked at, the change details of the event are not loaded.
+   *
+   * @param event An Event instance
+   * @param config A ProjectConfig instance for the given event
+   * @return true, if messages may be published for the event; otherwise false
+   */
+  public static boolean shouldPublish(Event event, ProjectConfig config) {
+    return config.isEnabled() && lookup(event.getClass()).publishOn.test(config);
+  }
+
+  /**
+   * Creates a new MessageGenerator for any event, dispatching on the event class.
+   *
+   * @param event An Event instance
+   * @param config A ProjectConfig instance for the given event
+   * @return A MessageGenerator instance capable of generating a message for the event, an
+   *     unsupported event MessageGenerator if the event is not supported.
+   */
+  public static MessageGenerator newInstance(Event event, ProjectConfig config) {
+    return lookup(event.getClass()).creator.create(event, config);
+  }
+
   /**
    * Creates a new MessageGenerator for patchset created events.
    *
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+/**
+ * Bounds the comments and commit messages put into messages, so that the size of a payload doesn't
+ * depend on the size of the event. Only the prefix that fits within the limits is scanned, and
+ * texts are only cut in between code points.
+ */
+final class MessageSummarizer {
+  /** Appended to a text that was cut. */
+  static final String ELLIPSIS = "\u2026";
+
+  // Made private to prevent instantiation.
+  private MessageSummarizer() {}
+
+  /**
+   * Summarizes a text, e.g. a comment, to the given number of UTF-8 encoded bytes and lines. A text
+   * that is cut ends with an ellipsis followed by a link to where it can be read in full.
+   *
+   * @param text The text to summarize, may be null.
+   * @param maxBytes The maximum number of bytes kept from the text.
+   * @param maxLines The maximum number of lines kept from the text.
+   * @param url The URL of the change, appended to the text if it was cut, may be null.
+   * @return The text itself if it is within the limits, its summary otherwise.
+   */
+  static String summarize(String text, int maxBytes, int maxLines, String url) {
+    if (text == null) {
+      return null;
+    }
+
+    int end;
+    end = cut(text, maxBytes, maxLines);
+    if (end == text.length()) {
+      return text;
+    }
+
+    StringBuilder summary;
+    summary = new StringBuilder(end + ELLIPSIS.length() + (url != null ? url.length() + 1 : 0));
+    summary.append(text, 0, trimEnd(text, end)).append(ELLIPSIS);
+    if (url != null && !url.isEmpty()) {
+      summary.append('\n').append(url);
+    }
+
+    return summary.toString();
+  }
+
+  /**
+   * Gets the title of a commit message, its first line, limited to the given number of UTF-8
+   * encoded bytes.
+   *
+   * @param commitMessage The commit message, may be null.
+   * @param maxBytes The maximum number of bytes kept from the first line.
+   * @return The first line, ending with an ellipsis if it was cut.
+   */
+  static String title(String commitMessage, int maxBytes) {
+    if (commitMessage == null) {
+      return null;
+    }
+
+    int end;
+    end = cut(commitMessage, maxBytes, 1);
+    if (end == commitMessage.length() || commitMessage.charAt(end) == '\n') {
+      return commitMessage.substring(0, end);
+    }
+
+    return commitMessage.substring(0, trimEnd(commitMessage, end)) + ELLIPSIS;
+  }
+
+  /**
+   * Finds where a text has to be cut to stay within the given limits.
+   *
+   * @param text The text.
+   * @param maxBytes The maximum number of UTF-8 encoded bytes before the cut.
+   * @param maxLines The maximum number of lines before the cut, which is then made at the line feed
+   *     ending the last of them.
+   * @return The index to cut the text at, its length if it is within the limits.
+   */
+  static int cut(String text, int maxBytes, int maxLines) {
+    int bytes;
+    bytes = 0;
+    int lines;
+    lines = 1;
+
+    int length;
+    length = text.length();
+    for (int i = 0; i < length; i++) {
+      char c;
+      c = text.charAt(i);
+
+      int size;
+      int chars;
+      chars = 1;
+      if (c < 0x80) {
+        size = 1;
+      } else if (c < 0x800) {
+        size = 2;
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < length
+          && Character.isLowSurrogate(text.charAt(i + 1))) {
+        size = 4;
+        chars = 2;
+      } else {
+        size = 3;
+      }
+
+      if (c == '\n' && ++lines > maxLines) {
+        return i;
+      }
+      bytes += size;
+      if (bytes > maxBytes) {
+        return i;
+      }
+      i += chars - 1;
+    }
+
+    return length;
+  }
+
+  /** Drops the whitespace before a cut, not to leave it in front of the ellipsis. */
+  private static int trimEnd(String text, int end) {
+    while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+      end--;
+    }
+
+    return end;
+  }
+}
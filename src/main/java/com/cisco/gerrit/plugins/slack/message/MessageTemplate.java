@@ -18,7 +18,12 @@
 package com.cisco.gerrit.plugins.slack.message;
 
 import com.cisco.gerrit.plugins.slack.util.ResourceHelper;
+import com.cisco.gerrit.plugins.slack.util.Utf8Buffer;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,6 +36,18 @@ public class MessageTemplate {
   /** The class logger instance. */
   private static final Logger LOGGER = LoggerFactory.getLogger(MessageTemplate.class);
 
+  /** The name of the message template resource. */
+  static final String TEMPLATE_NAME = "message-template.json";
+
+  /** The number of arguments passed to templates, %1$s to %10$s. */
+  public static final int ARGUMENTS = 10;
+
+  /** The message template, parsed once rather than on every render. */
+  private static final CompiledTemplate TEMPLATE = loadTemplate();
+
+  private CompiledTemplate layout;
+  private MessageFormat format = MessageFormat.ATTACHMENTS;
+
   private String channel;
   private String name;
   private String action;
@@ -40,6 +57,26 @@ public class MessageTemplate {
   private int number;
   private String title;
   private String message;
+  private boolean reviewerAdded;
+
+  /**
+   * Sets the template the message is rendered with.
+   *
+   * @param layout The compiled template, null to use the bundled one.
+   */
+  public void setLayout(CompiledTemplate layout) {
+    this.layout = layout;
+  }
+
+  /**
+   * Sets the shape of the payload the message is rendered to, unless a template is set with
+   * setLayout, which takes precedence.
+   *
+   * @param format The message format, null for the attachments of the message template.
+   */
+  public void setFormat(MessageFormat format) {
+    this.format = format != null ? format : MessageFormat.ATTACHMENTS;
+  }
 
   public String getChannel() {
     return clean(channel);
@@ -113,6 +150,16 @@ public class MessageTemplate {
     this.message = message;
   }
 
+  /**
+   * Marks the message as being about a reviewer added to the change, so that coalescing lists the
+   * reviewer rather than the action.
+   *
+   * @param reviewerAdded Whether the message is about an added reviewer.
+   */
+  public void setReviewerAdded(boolean reviewerAdded) {
+    this.reviewerAdded = reviewerAdded;
+  }
+
   /**
    * Renders the message template into a String.
    *
@@ -122,46 +169,235 @@ public class MessageTemplate {
     String result;
     result = "";
 
-    try {
-      String template;
-      template = ResourceHelper.loadNamedResourceAsString("message-template.json");
+    if (isBlocks()) {
+      StringBuilder builder;
+      builder = RenderBuffer.acquire();
+      writeBlocks(builder);
 
+      result = builder.toString();
+      RenderBuffer.recycle(builder);
+
+      return result;
+    }
+
+    CompiledTemplate template;
+    template = layout != null ? layout : TEMPLATE;
+    if (template != null) {
       result =
-          String.format(
-              template,
-              getChannel(),
-              getName(),
-              getAction(),
-              getProject(),
-              getBranch(),
-              getUrl(),
-              getNumber(),
-              getTitle(),
-              getMessage(),
+          template.render(
+              channel,
+              name,
+              action,
+              project,
+              branch,
+              url,
+              String.valueOf(number),
+              title,
+              message,
               "good");
-    } catch (IOException e) {
-      LOGGER.error("Error rendering template: " + e.getMessage(), e);
     }
 
     return result;
   }
 
   /**
-   * Cleans up the provided string to make it acceptable for using in a Slack message template. It
-   * escapes any double quote characters, trims all leading/trailing whitespace and returns an empty
-   * string if the provided string was null.
+   * Renders the message template straight into a pooled UTF-8 buffer, for publishing.
    *
-   * @param str The string to process.
-   * @return The message with all occurrences of the double quote character escaped and
-   *     leading/trailing whitespace trimmed
+   * @return The rendered template, to be released once published, or an empty buffer if the
+   *     template could not be loaded.
    */
-  private String clean(String str) {
-    if (str != null) {
-      str = str.replace("\"", "\\\"").trim();
+  public Utf8Buffer renderUtf8() {
+    Utf8Buffer result;
+    result = null;
+
+    if (isBlocks()) {
+      StringBuilder builder;
+      builder = RenderBuffer.acquire();
+      writeBlocks(builder);
+
+      result = Utf8Buffer.encode(builder);
+      RenderBuffer.recycle(builder);
+
+      return result;
+    }
+
+    CompiledTemplate template;
+    template = layout != null ? layout : TEMPLATE;
+    if (template != null) {
+      result =
+          template.renderUtf8(
+              channel,
+              name,
+              action,
+              project,
+              branch,
+              url,
+              String.valueOf(number),
+              title,
+              message,
+              "good");
+    }
+
+    return result != null ? result : Utf8Buffer.encode("");
+  }
+
+  /** Whether the message is rendered as Block Kit blocks rather than from a template. */
+  private boolean isBlocks() {
+    return layout == null && format == MessageFormat.BLOCKS;
+  }
+
+  /**
+   * Writes the message as Block Kit blocks: a section with the event, another one with the title
+   * and the message, cut to the length Slack accepts, and a context block with the project and
+   * branch.
+   *
+   * @param out The builder to write the payload to.
+   */
+  private void writeBlocks(StringBuilder out) {
+    BlockKitWriter writer;
+    writer = new BlockKitWriter(out);
+
+    writer.begin(channel);
+    writer.startText().text(name).raw(" ").text(action).raw(" ").text(project);
+    writer.raw(" (").text(branch).raw(") ").text(url).raw(": ").text(title).endText();
+
+    writer.startSection().text(name).raw(" ").text(action).raw(" ");
+    writer.startLink(url).raw("change ").text(number).endLink().endSection();
+
+    if (StringUtils.isNotBlank(title) || StringUtils.isNotBlank(message)) {
+      writer.startSection();
+      if (StringUtils.isNotBlank(title)) {
+        writer.bold(title);
+        if (StringUtils.isNotBlank(message)) {
+          writer.raw("\\n");
+        }
+      }
+      writer.text(message).endSection();
+    }
+
+    // Slack rejects empty context elements, and a context block without any
+    if (StringUtils.isNotBlank(project) || StringUtils.isNotBlank(branch)) {
+      writer.startContext();
+      if (StringUtils.isNotBlank(project)) {
+        writer.startElement().text(project).endElement();
+      }
+      if (StringUtils.isNotBlank(branch)) {
+        writer.startElement().text(branch).endElement();
+      }
+      writer.endContext();
+    }
+
+    writer.end();
+  }
+
+  /**
+   * Loads and parses the message template resource.
+   *
+   * @return The parsed template, null if it could not be loaded.
+   */
+  private static CompiledTemplate loadTemplate() {
+    try {
+      String template;
+      template = ResourceHelper.loadNamedResourceAsString(TEMPLATE_NAME);
+      if (template == null) {
+        throw new IOException("Resource not found: " + TEMPLATE_NAME);
+      }
+
+      return CompiledTemplate.parse(template);
+    } catch (IOException | IllegalArgumentException e) {
+      LOGGER.error("Error loading template: " + e.getMessage(), e);
+      return null;
+    }
+  }
+
+  /**
+   * Merges templates about the same change into a single one, e.g. "proposed, added reviewers A, B"
+   * for a new change along with its reviewers. The change details are taken from the last template,
+   * the messages of all templates are kept, summarized together to the limits of a single message.
+   *
+   * @param templates The templates to merge, in the order of their events.
+   * @param maxBytes The maximum number of UTF-8 encoded bytes of the merged messages.
+   * @param maxLines The maximum number of lines of the merged messages.
+   * @return The merged template.
+   */
+  static MessageTemplate coalesce(List<MessageTemplate> templates, int maxBytes, int maxLines) {
+    MessageTemplate last;
+    last = templates.get(templates.size() - 1);
+
+    MessageTemplate result;
+    result = new MessageTemplate();
+    result.layout = last.layout;
+    result.format = last.format;
+    result.channel = last.channel;
+    result.project = last.project;
+    result.branch = last.branch;
+    result.url = last.url;
+    result.number = last.number;
+    result.title = last.title;
+
+    String actor;
+    actor = null;
+
+    List<String> actions;
+    actions = new ArrayList<>();
+    List<String> reviewers;
+    reviewers = new ArrayList<>();
+    List<String> messages;
+    messages = new ArrayList<>();
+
+    for (MessageTemplate template : templates) {
+      if (template.reviewerAdded) {
+        if (!reviewers.contains(template.name)) {
+          reviewers.add(template.name);
+        }
+      } else {
+        if (actor == null) {
+          actor = template.name;
+        }
+
+        // Actions of someone else, e.g. a CI system commenting on the new patch set
+        String action;
+        action =
+            Objects.equals(actor, template.name)
+                ? template.action
+                : template.name + " " + template.action;
+        if (!actions.contains(action)) {
+          actions.add(action);
+        }
+      }
+
+      if (StringUtils.isNotBlank(template.message)) {
+        messages.add(template.message);
+      }
+    }
+
+    if (actor == null) {
+      result.name = String.join(", ", reviewers);
+      result.action = reviewers.size() > 1 ? "were added to review" : last.action;
     } else {
-      str = "";
+      if (!reviewers.isEmpty()) {
+        actions.add(
+            (reviewers.size() > 1 ? "added reviewers " : "added reviewer ")
+                + String.join(", ", reviewers));
+      }
+      result.name = actor;
+      result.action = String.join(", ", actions);
     }
+    result.message =
+        MessageSummarizer.summarize(String.join("\n\n", messages), maxBytes, maxLines, last.url);
 
-    return str;
+    return result;
+  }
+
+  /**
+   * Cleans up the provided string to make it acceptable for using in a Slack message template. It
+   * escapes it as the content of a JSON string, trims all leading/trailing whitespace and returns
+   * an empty string if the provided string was null.
+   *
+   * @param str The string to process.
+   * @return The escaped string with leading/trailing whitespace trimmed.
+   */
+  private String clean(String str) {
+    return JsonEscaper.escape(str);
   }
 }
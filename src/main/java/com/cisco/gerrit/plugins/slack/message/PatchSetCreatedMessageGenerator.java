@@ -17,13 +17,12 @@
 
 package com.cisco.gerrit.plugins.slack.message;
 
-import static org.apache.commons.lang3.StringUtils.substringBefore;
-
 import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.gerrit.extensions.client.ChangeKind;
 import com.google.gerrit.server.data.ChangeAttribute;
 import com.google.gerrit.server.events.PatchSetCreatedEvent;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +38,7 @@ public class PatchSetCreatedMessageGenerator implements MessageGenerator {
       LoggerFactory.getLogger(PatchSetCreatedMessageGenerator.class);
 
   private PatchSetCreatedEvent event;
+  private Supplier<ChangeAttribute> change;
   private ProjectConfig config;
 
   /**
@@ -53,6 +53,7 @@ public class PatchSetCreatedMessageGenerator implements MessageGenerator {
     }
 
     this.event = event;
+    this.change = Suppliers.memoize(() -> event.change.get());
     this.config = config;
   }
 
@@ -92,7 +93,7 @@ public class PatchSetCreatedMessageGenerator implements MessageGenerator {
 
     try {
       ChangeAttribute change;
-      change = event.change.get();
+      change = this.change.get();
       if (config.getIgnorePrivatePatchSet() && Boolean.TRUE.equals(change.isPrivate)) {
         return false;
       }
@@ -103,48 +104,49 @@ public class PatchSetCreatedMessageGenerator implements MessageGenerator {
       LOGGER.warn("Error checking private and work-in-progress status", e);
     }
 
+    Pattern pattern;
+    pattern = config.getIgnorePattern();
+    if (pattern == null) {
+      return true;
+    }
+
     boolean result;
     result = true;
 
     try {
-      Pattern pattern;
-      pattern = Pattern.compile(config.getIgnore(), Pattern.DOTALL);
-
-      Matcher matcher;
-      matcher = pattern.matcher(event.change.get().commitMessage);
-
       // If the ignore pattern matches, publishing should not happen
-      result = !matcher.matches();
+      result = !BoundedMatcher.matches(pattern, change.get().commitMessage);
     } catch (Exception e) {
-      LOGGER.warn("The specified ignore pattern was invalid", e);
+      LOGGER.warn("Error matching the ignore pattern", e);
     }
 
     return result;
   }
 
   @Override
-  public String generate() {
-    String message;
-    message = "";
+  public MessageTemplate generateTemplate() {
+    MessageTemplate template;
+    template = null;
 
     try {
-      MessageTemplate template;
       template = new MessageTemplate();
 
+      template.setLayout(config.getMessageTemplate());
+      template.setFormat(config.getFormat());
       template.setChannel(config.getChannel());
       template.setName(event.uploader.get().name);
       template.setAction("proposed");
-      template.setNumber(event.change.get().number);
-      template.setProject(event.change.get().project);
-      template.setBranch(event.change.get().branch);
-      template.setUrl(event.change.get().url);
-      template.setTitle(substringBefore(event.change.get().commitMessage, "\n"));
-
-      message = template.render();
+      template.setNumber(change.get().number);
+      template.setProject(change.get().project);
+      template.setBranch(change.get().branch);
+      template.setUrl(change.get().url);
+      template.setTitle(
+          MessageSummarizer.title(change.get().commitMessage, config.getMessageMaxBytes()));
     } catch (Exception e) {
       LOGGER.error("Error generating message: " + e.getMessage(), e);
+      template = null;
     }
 
-    return message;
+    return template;
   }
 }
@@ -17,9 +17,10 @@
 
 package com.cisco.gerrit.plugins.slack.message;
 
-import static org.apache.commons.lang3.StringUtils.substringBefore;
-
 import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.gerrit.server.data.ChangeAttribute;
 import com.google.gerrit.server.events.PrivateStateChangedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +37,7 @@ public class PrivateStateChangedGenerator implements MessageGenerator {
 
   private ProjectConfig config;
   private PrivateStateChangedEvent event;
+  private Supplier<ChangeAttribute> change;
 
   /**
    * Creates a new PrivateStateChangedGenerator instance using the provided PrivateStateChangedEvent
@@ -49,6 +51,7 @@ public class PrivateStateChangedGenerator implements MessageGenerator {
     }
 
     this.event = event;
+    this.change = Suppliers.memoize(() -> event.change.get());
     this.config = config;
   }
 
@@ -59,35 +62,36 @@ public class PrivateStateChangedGenerator implements MessageGenerator {
     }
 
     // If the change is still private then ignore
-    if (Boolean.TRUE.equals(event.change.get().isPrivate)) {
+    if (Boolean.TRUE.equals(change.get().isPrivate)) {
       return false;
     }
     return true;
   }
 
   @Override
-  public String generate() {
-    String message;
-    message = "";
+  public MessageTemplate generateTemplate() {
+    MessageTemplate template;
+    template = null;
 
     try {
-      MessageTemplate template;
       template = new MessageTemplate();
 
+      template.setLayout(config.getMessageTemplate());
+      template.setFormat(config.getFormat());
       template.setChannel(config.getChannel());
       template.setName(event.changer.get().name);
       template.setAction("proposed");
-      template.setNumber(event.change.get().number);
-      template.setProject(event.change.get().project);
-      template.setBranch(event.change.get().branch);
-      template.setUrl(event.change.get().url);
-      template.setTitle(substringBefore(event.change.get().commitMessage, "\n"));
-
-      message = template.render();
+      template.setNumber(change.get().number);
+      template.setProject(change.get().project);
+      template.setBranch(change.get().branch);
+      template.setUrl(change.get().url);
+      template.setTitle(
+          MessageSummarizer.title(change.get().commitMessage, config.getMessageMaxBytes()));
     } catch (Exception e) {
       LOGGER.error("Error generating message: " + e.getMessage(), e);
+      template = null;
     }
 
-    return message;
+    return template;
   }
 }
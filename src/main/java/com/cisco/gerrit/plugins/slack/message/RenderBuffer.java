@@ -0,0 +1,57 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+/**
+ * Hands out a StringBuilder per thread that messages are rendered into, so that rendering doesn't
+ * grow a new builder for every message.
+ */
+final class RenderBuffer {
+  /** Builders above this capacity are not kept for reuse, not to hold on to a huge message. */
+  private static final int MAX_REUSED_CAPACITY = 64 * 1024;
+
+  private static final ThreadLocal<StringBuilder> BUILDER =
+      ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+  // Made private to prevent instantiation.
+  private RenderBuffer() {}
+
+  /**
+   * Gets the empty builder of the current thread.
+   *
+   * @return The builder, to be recycled once its content has been copied out.
+   */
+  static StringBuilder acquire() {
+    StringBuilder builder;
+    builder = BUILDER.get();
+    builder.setLength(0);
+
+    return builder;
+  }
+
+  /**
+   * Drops the builder of the current thread if it grew too large to be kept around.
+   *
+   * @param builder The builder acquired by the current thread.
+   */
+  static void recycle(StringBuilder builder) {
+    if (builder.capacity() > MAX_REUSED_CAPACITY) {
+      BUILDER.remove();
+    }
+  }
+}
@@ -17,9 +17,9 @@
 
 package com.cisco.gerrit.plugins.slack.message;
 
-import static org.apache.commons.lang3.StringUtils.substringBefore;
-
 import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.gerrit.server.data.ChangeAttribute;
 import com.google.gerrit.server.events.ReviewerAddedEvent;
 import org.slf4j.Logger;
@@ -35,8 +35,12 @@ public class ReviewerAddedMessageGenerator implements MessageGenerator {
   /** The class logger instance. */
   private static final Logger LOGGER = LoggerFactory.getLogger(ReviewerAddedMessageGenerator.class);
 
+  /** The action of reviewer added messages. */
+  static final String ACTION = "was added to review";
+
   private ProjectConfig config;
   private ReviewerAddedEvent event;
+  private Supplier<ChangeAttribute> change;
 
   /**
    * Creates a new ReviewerAddedMessageGenerator instance using the provided ReviewerAddedEvent
@@ -50,6 +54,7 @@ public class ReviewerAddedMessageGenerator implements MessageGenerator {
     }
 
     this.event = event;
+    this.change = Suppliers.memoize(() -> event.change.get());
     this.config = config;
   }
 
@@ -61,7 +66,7 @@ public class ReviewerAddedMessageGenerator implements MessageGenerator {
 
     try {
       ChangeAttribute change;
-      change = event.change.get();
+      change = this.change.get();
       if (config.getIgnorePrivatePatchSet() && Boolean.TRUE.equals(change.isPrivate)) {
         return false;
       }
@@ -76,28 +81,30 @@ public class ReviewerAddedMessageGenerator implements MessageGenerator {
   }
 
   @Override
-  public String generate() {
-    String message;
-    message = "";
+  public MessageTemplate generateTemplate() {
+    MessageTemplate template;
+    template = null;
 
     try {
-      MessageTemplate template;
       template = new MessageTemplate();
 
+      template.setLayout(config.getMessageTemplate());
+      template.setFormat(config.getFormat());
       template.setChannel(config.getChannel());
       template.setName(event.reviewer.get().name);
-      template.setAction("was added to review");
-      template.setNumber(event.change.get().number);
-      template.setProject(event.change.get().project);
-      template.setBranch(event.change.get().branch);
-      template.setUrl(event.change.get().url);
-      template.setTitle(substringBefore(event.change.get().commitMessage, "\n"));
-
-      message = template.render();
+      template.setAction(ACTION);
+      template.setReviewerAdded(true);
+      template.setNumber(change.get().number);
+      template.setProject(change.get().project);
+      template.setBranch(change.get().branch);
+      template.setUrl(change.get().url);
+      template.setTitle(
+          MessageSummarizer.title(change.get().commitMessage, config.getMessageMaxBytes()));
     } catch (Exception e) {
       LOGGER.error("Error generating message: " + e.getMessage(), e);
+      template = null;
     }
 
-    return message;
+    return template;
   }
 }
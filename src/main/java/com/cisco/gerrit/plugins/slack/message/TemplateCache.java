@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+import com.google.common.cache.Cache;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.server.cache.CacheModule;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.gerrit.server.project.ProjectState;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.inject.Inject;
+import com.google.inject.Module;
+import com.google.inject.Singleton;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Named;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import org.eclipse.jgit.errors.LargeObjectException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads the message templates project owners store in refs/meta/config. A template is looked up in
+ * the project and then in its parents, like the rest of the config, and compiled once per blob, so
+ * a template that didn't change is never parsed again, whichever project it is used by.
+ *
+ * <p>A template that can't be read or parsed is reported once and replaced by the bundled one.
+ */
+@Singleton
+public class TemplateCache {
+  /** The name of the cache, configurable as slack-integration.template in gerrit.config. */
+  static final String CACHE_NAME = "template";
+
+  /** The largest template accepted, in bytes. */
+  static final int MAX_TEMPLATE_SIZE = 64 * 1024;
+
+  /** The class logger instance. */
+  private static final Logger LOGGER = LoggerFactory.getLogger(TemplateCache.class);
+
+  private static final Gson GSON = new Gson();
+
+  /**
+   * Creates the module binding the cache.
+   *
+   * @return The module.
+   */
+  public static Module module() {
+    return new CacheModule() {
+      @Override
+      protected void configure() {
+        cache(CACHE_NAME, ObjectId.class, new TypeLiteral<Optional<CompiledTemplate>>() {})
+            .maximumWeight(256);
+      }
+    };
+  }
+
+  private final Cache<ObjectId, Optional<CompiledTemplate>> cache;
+  private final GitRepositoryManager repositoryManager;
+  private final ProjectCache projectCache;
+
+  @Inject
+  TemplateCache(
+      @Named(CACHE_NAME) Cache<ObjectId, Optional<CompiledTemplate>> cache,
+      GitRepositoryManager repositoryManager,
+      ProjectCache projectCache) {
+    this.cache = cache;
+    this.repositoryManager = repositoryManager;
+    this.projectCache = projectCache;
+  }
+
+  /**
+   * Gets the compiled template stored under the given name in refs/meta/config of the project, or
+   * of the nearest parent having one.
+   *
+   * @param project The name key of the project.
+   * @param fileName The name of the template file.
+   * @return The template, null if none was found or it is broken, to use the bundled one.
+   */
+  public CompiledTemplate get(Project.NameKey project, String fileName) {
+    Optional<ProjectState> state;
+    state = projectCache.get(project);
+    if (!state.isPresent()) {
+      return null;
+    }
+
+    for (ProjectState ancestor : state.get().tree()) {
+      try {
+        CompiledTemplate template;
+        template = getOwn(ancestor.getNameKey(), fileName);
+        if (template != null) {
+          return template;
+        }
+      } catch (IOException e) {
+        LOGGER.warn("Unable to read template " + fileName + " of " + ancestor.getNameKey(), e);
+        return null;
+      }
+    }
+
+    LOGGER.warn("Template " + fileName + " of " + project + " not found, using the default");
+    return null;
+  }
+
+  /**
+   * Gets the compiled template stored in refs/meta/config of a single project.
+   *
+   * @return The template, null if the project has no such file.
+   * @throws IOException If the file couldn't be read.
+   */
+  private CompiledTemplate getOwn(Project.NameKey owner, String fileName) throws IOException {
+    try (Repository repository = repositoryManager.openRepository(owner);
+        RevWalk revWalk = new RevWalk(repository)) {
+      Ref ref;
+      ref = repository.exactRef(RefNames.REFS_CONFIG);
+      if (ref == null) {
+        return null;
+      }
+
+      ObjectId blobId;
+      try (TreeWalk treeWalk =
+          TreeWalk.forPath(
+              repository, fileName, revWalk.parseCommit(ref.getObjectId()).getTree())) {
+        if (treeWalk == null) {
+          return null;
+        }
+        blobId = treeWalk.getObjectId(0);
+      }
+
+      Optional<CompiledTemplate> template;
+      try {
+        template = cache.get(blobId, () -> compile(repository, blobId, fileName, owner));
+      } catch (ExecutionException e) {
+        throw new IOException(e.getCause());
+      }
+
+      // A broken template is found but replaced by the bundled one
+      return template.orElse(null);
+    }
+  }
+
+  /** Reads and compiles a template blob, only called once per blob. */
+  private static Optional<CompiledTemplate> compile(
+      Repository repository, ObjectId blobId, String fileName, Project.NameKey owner)
+      throws IOException {
+    try {
+      byte[] bytes;
+      bytes = repository.open(blobId, Constants.OBJ_BLOB).getCachedBytes(MAX_TEMPLATE_SIZE);
+
+      CompiledTemplate template;
+      template = CompiledTemplate.parse(new String(bytes, StandardCharsets.UTF_8));
+      if (template.getArity() > MessageTemplate.ARGUMENTS) {
+        throw new IllegalArgumentException(
+            "Placeholders go up to %" + MessageTemplate.ARGUMENTS + "$s");
+      }
+      validate(template);
+
+      return Optional.of(template);
+    } catch (IllegalArgumentException | LargeObjectException e) {
+      LOGGER.warn(
+          "Template "
+              + fileName
+              + " of "
+              + owner
+              + " is invalid, using the default instead: "
+              + e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Checks that the template renders to valid JSON, so that a broken template is caught once rather
+   * than rejected by Slack for every message.
+   */
+  private static void validate(CompiledTemplate template) {
+    String[] arguments;
+    arguments = new String[MessageTemplate.ARGUMENTS];
+    Arrays.fill(arguments, "\"value\"");
+
+    try (JsonReader reader = new JsonReader(new StringReader(template.render(arguments)))) {
+      reader.setLenient(false);
+      GSON.getAdapter(JsonElement.class).read(reader);
+      if (reader.peek() != JsonToken.END_DOCUMENT) {
+        throw new IllegalArgumentException("Unexpected content after the JSON document");
+      }
+    } catch (IOException | RuntimeException e) {
+      throw new IllegalArgumentException("Not a valid JSON document: " + e.getMessage(), e);
+    }
+  }
+}
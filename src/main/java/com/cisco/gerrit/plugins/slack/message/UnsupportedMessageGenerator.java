@@ -17,6 +17,7 @@
 
 package com.cisco.gerrit.plugins.slack.message;
 
+import com.cisco.gerrit.plugins.slack.util.Utf8Buffer;
 import com.google.gerrit.server.events.Event;
 
 /**
@@ -41,6 +42,11 @@ public class UnsupportedMessageGenerator implements MessageGenerator {
     return false;
   }
 
+  @Override
+  public MessageTemplate generateTemplate() {
+    return null;
+  }
+
   @Override
   public String generate() {
     StringBuilder message;
@@ -51,4 +57,9 @@ public class UnsupportedMessageGenerator implements MessageGenerator {
 
     return message.toString();
   }
+
+  @Override
+  public Utf8Buffer generateUtf8() {
+    return Utf8Buffer.encode(generate());
+  }
 }
@@ -17,9 +17,10 @@
 
 package com.cisco.gerrit.plugins.slack.message;
 
-import static org.apache.commons.lang3.StringUtils.substringBefore;
-
 import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.gerrit.server.data.ChangeAttribute;
 import com.google.gerrit.server.events.WorkInProgressStateChangedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +38,7 @@ public class WorkInProgressStateChangedGenerator implements MessageGenerator {
 
   private ProjectConfig config;
   private WorkInProgressStateChangedEvent event;
+  private Supplier<ChangeAttribute> change;
 
   /**
    * Creates a new WorkInProgressStateChangedGenerator instance using the provided
@@ -50,6 +52,7 @@ public class WorkInProgressStateChangedGenerator implements MessageGenerator {
     }
 
     this.event = event;
+    this.change = Suppliers.memoize(() -> event.change.get());
     this.config = config;
   }
 
@@ -60,35 +63,36 @@ public class WorkInProgressStateChangedGenerator implements MessageGenerator {
     }
 
     // If the change is still work-in-progress then ignore
-    if (Boolean.TRUE.equals(event.change.get().wip)) {
+    if (Boolean.TRUE.equals(change.get().wip)) {
       return false;
     }
     return true;
   }
 
   @Override
-  public String generate() {
-    String message;
-    message = "";
+  public MessageTemplate generateTemplate() {
+    MessageTemplate template;
+    template = null;
 
     try {
-      MessageTemplate template;
       template = new MessageTemplate();
 
+      template.setLayout(config.getMessageTemplate());
+      template.setFormat(config.getFormat());
       template.setChannel(config.getChannel());
       template.setName(event.changer.get().name);
       template.setAction("proposed");
-      template.setNumber(event.change.get().number);
-      template.setProject(event.change.get().project);
-      template.setBranch(event.change.get().branch);
-      template.setUrl(event.change.get().url);
-      template.setTitle(substringBefore(event.change.get().commitMessage, "\n"));
-
-      message = template.render();
+      template.setNumber(change.get().number);
+      template.setProject(change.get().project);
+      template.setBranch(change.get().branch);
+      template.setUrl(change.get().url);
+      template.setTitle(
+          MessageSummarizer.title(change.get().commitMessage, config.getMessageMaxBytes()));
     } catch (Exception e) {
       LOGGER.error("Error generating message: " + e.getMessage(), e);
+      template = null;
     }
 
-    return message;
+    return template;
   }
 }
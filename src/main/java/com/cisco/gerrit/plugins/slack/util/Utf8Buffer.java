@@ -0,0 +1,241 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A UTF-8 encoded message, held in a byte array borrowed from a shared pool. Messages are encoded
+ * once, then journaled and sent as is, and the array is returned to the pool once the message has
+ * been published.
+ *
+ * <p>The pool keeps arrays in a few size classes, doubling from MIN_POOLED_SIZE up to
+ * MAX_POOLED_SIZE, and a message borrows the smallest array that fits it, so that a short message
+ * never holds on to a large array while it is queued. Larger messages get an array of their own, so
+ * the pool never holds on to more than a bounded amount of memory.
+ */
+public final class Utf8Buffer {
+  /** The size of the arrays of the smallest size class. */
+  static final int MIN_POOLED_SIZE = 1024;
+
+  /**
+   * The size of the arrays of the largest size class, which fits the large majority of messages.
+   */
+  static final int MAX_POOLED_SIZE = 16 * 1024;
+
+  /** The maximum number of arrays kept in the pool of each size class. */
+  static final int POOL_CAPACITY = 32;
+
+  private static final List<ArrayBlockingQueue<byte[]>> POOLS = createPools();
+
+  private byte[] bytes;
+  private final int length;
+  private boolean pooled;
+
+  private Utf8Buffer(byte[] bytes, int length, boolean pooled) {
+    this.bytes = bytes;
+    this.length = length;
+    this.pooled = pooled;
+  }
+
+  /**
+   * Encodes the given characters into a pooled array, without any intermediate copy. Unpaired
+   * surrogates are encoded as '?', like String.getBytes() does.
+   *
+   * @param chars The characters to encode.
+   * @return The encoded message, to be released once published.
+   */
+  public static Utf8Buffer encode(CharSequence chars) {
+    int length;
+    length = encodedLength(chars);
+
+    int sizeClass;
+    sizeClass = sizeClass(length);
+
+    byte[] bytes;
+    bytes = sizeClass >= 0 ? POOLS.get(sizeClass).poll() : null;
+    if (bytes == null) {
+      bytes = new byte[sizeClass >= 0 ? MIN_POOLED_SIZE << sizeClass : length];
+    }
+
+    int position;
+    position = 0;
+    for (int i = 0; i < chars.length(); i++) {
+      char c;
+      c = chars.charAt(i);
+      if (c < 0x80) {
+        bytes[position++] = (byte) c;
+      } else if (c < 0x800) {
+        bytes[position++] = (byte) (0xc0 | c >> 6);
+        bytes[position++] = (byte) (0x80 | c & 0x3f);
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c)
+            && i + 1 < chars.length()
+            && Character.isLowSurrogate(chars.charAt(i + 1))) {
+          int codePoint;
+          codePoint = Character.toCodePoint(c, chars.charAt(++i));
+          bytes[position++] = (byte) (0xf0 | codePoint >> 18);
+          bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+          bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+          bytes[position++] = (byte) (0x80 | codePoint & 0x3f);
+        } else {
+          bytes[position++] = '?';
+        }
+      } else {
+        bytes[position++] = (byte) (0xe0 | c >> 12);
+        bytes[position++] = (byte) (0x80 | c >> 6 & 0x3f);
+        bytes[position++] = (byte) (0x80 | c & 0x3f);
+      }
+    }
+
+    return new Utf8Buffer(bytes, length, sizeClass >= 0);
+  }
+
+  /**
+   * Wraps already encoded bytes, which are not returned to the pool.
+   *
+   * @param bytes The UTF-8 encoded bytes.
+   * @return The message.
+   */
+  public static Utf8Buffer wrap(byte[] bytes) {
+    return new Utf8Buffer(bytes, bytes.length, false);
+  }
+
+  /**
+   * Finds the smallest size class whose arrays fit the given number of bytes.
+   *
+   * @return The index of the size class, or -1 if the bytes don't fit any pooled array.
+   */
+  private static int sizeClass(int length) {
+    if (length > MAX_POOLED_SIZE) {
+      return -1;
+    }
+    if (length <= MIN_POOLED_SIZE) {
+      return 0;
+    }
+
+    // The number of doublings of MIN_POOLED_SIZE needed to reach the length
+    return Integer.numberOfLeadingZeros(MIN_POOLED_SIZE)
+        - Integer.numberOfLeadingZeros(length - 1)
+        + 1;
+  }
+
+  private static List<ArrayBlockingQueue<byte[]>> createPools() {
+    List<ArrayBlockingQueue<byte[]>> pools;
+    pools = new ArrayList<>();
+    for (int size = MIN_POOLED_SIZE; size <= MAX_POOLED_SIZE; size <<= 1) {
+      pools.add(new ArrayBlockingQueue<>(POOL_CAPACITY));
+    }
+
+    return pools;
+  }
+
+  /** Computes the number of bytes the characters take once encoded. */
+  private static int encodedLength(CharSequence chars) {
+    int length;
+    length = chars.length();
+    for (int i = 0; i < chars.length(); i++) {
+      char c;
+      c = chars.charAt(i);
+      if (c >= 0x800) {
+        if (Character.isHighSurrogate(c)
+            && i + 1 < chars.length()
+            && Character.isLowSurrogate(chars.charAt(i + 1))) {
+          // Four bytes for the two chars
+          length += 2;
+          i++;
+        } else if (!Character.isSurrogate(c)) {
+          length += 2;
+        }
+      } else if (c >= 0x80) {
+        length += 1;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Gets the array holding the message, which may be longer than the message.
+   *
+   * @return The array, valid until the message is released.
+   */
+  public byte[] array() {
+    if (bytes == null) {
+      throw new IllegalStateException("The buffer has been released");
+    }
+    return bytes;
+  }
+
+  /**
+   * Gets the length of the encoded message.
+   *
+   * @return The number of bytes.
+   */
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Gets the encoded message as a ByteBuffer sharing the array.
+   *
+   * @return A ByteBuffer positioned at the start of the message.
+   */
+  public ByteBuffer asByteBuffer() {
+    return ByteBuffer.wrap(array(), 0, length);
+  }
+
+  /**
+   * Returns the array to the pool, the message may not be used anymore afterwards. Releasing it
+   * more than once has no effect.
+   */
+  public synchronized void release() {
+    if (bytes != null && pooled) {
+      POOLS.get(sizeClass(bytes.length)).offer(bytes);
+    }
+    bytes = null;
+  }
+
+  /**
+   * Keeps the array from returning to the pool once the message is released, e.g. because a request
+   * that was given up on may still be reading it. The array is then left to the garbage collector.
+   */
+  public synchronized void detach() {
+    pooled = false;
+  }
+
+  /** Returns the number of arrays currently in the pool, across all size classes. */
+  static int pooled() {
+    int pooled;
+    pooled = 0;
+    for (ArrayBlockingQueue<byte[]> pool : POOLS) {
+      pooled += pool.size();
+    }
+
+    return pooled;
+  }
+
+  /** Decodes the message, for logging and tests; not meant for the delivery path. */
+  @Override
+  public synchronized String toString() {
+    return bytes != null ? new String(bytes, 0, length, StandardCharsets.UTF_8) : "(released)";
+  }
+}
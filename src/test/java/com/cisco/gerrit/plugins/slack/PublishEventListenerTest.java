@@ -17,28 +17,263 @@
 
 package com.cisco.gerrit.plugins.slack;
 
-import static org.junit.Assert.assertTrue;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
-import com.google.gerrit.server.config.AllProjectsName;
+import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.cisco.gerrit.plugins.slack.config.ProjectConfigCache;
+import com.cisco.gerrit.plugins.slack.delivery.DeliveryExecutor;
+import com.cisco.gerrit.plugins.slack.util.Utf8Buffer;
+import com.google.common.base.Suppliers;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.metrics.Counter0;
+import com.google.gerrit.metrics.Description;
+import com.google.gerrit.metrics.MetricMaker;
+import com.google.gerrit.server.config.PluginConfig;
 import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.gerrit.server.data.ChangeAttribute;
+import com.google.gerrit.server.events.ChangeEvent;
+import com.google.gerrit.server.events.Event;
+import com.google.gerrit.server.events.PatchSetCreatedEvent;
+import com.google.gerrit.server.events.PrivateStateChangedEvent;
+import com.google.gerrit.server.events.RefUpdatedEvent;
+import com.google.gerrit.server.events.ReviewerAddedEvent;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 
 public class PublishEventListenerTest {
+  private static final String PROJECT_NAME = "test-project";
+
   private PluginConfigFactory mockConfigFactory = mock(PluginConfigFactory.class);
-  private AllProjectsName mockAllProjectsName = mock(AllProjectsName.class);
+  private PluginConfig mockPluginConfig = mock(PluginConfig.class);
+  private ProjectConfigCache mockProjectConfigCache = mock(ProjectConfigCache.class);
+  private DeliveryExecutor mockDeliveryExecutor = mock(DeliveryExecutor.class);
+  private MetricMaker mockMetricMaker = mock(MetricMaker.class);
+  private Counter0 mockRejectedEvents = mock(Counter0.class);
+  private ChangeAttribute mockChange = mock(ChangeAttribute.class);
+
+  private Project.NameKey projectNameKey = Project.NameKey.parse(PROJECT_NAME);
 
   private PublishEventListener publishEventListener;
 
   @Before
   public void setup() throws Exception {
-    publishEventListener = new PublishEventListener(mockConfigFactory, mockAllProjectsName);
+    // Setup mocks
+    when(mockConfigFactory.getFromProjectConfigWithInheritance(
+            projectNameKey, ProjectConfig.CONFIG_NAME))
+        .thenReturn(mockPluginConfig);
+
+    when(mockConfigFactory.getFromGerritConfig(ProjectConfig.CONFIG_NAME))
+        .thenReturn(mockPluginConfig);
+
+    when(mockProjectConfigCache.get(projectNameKey))
+        .thenAnswer(invocation -> new ProjectConfig(mockConfigFactory, projectNameKey));
+
+    when(mockPluginConfig.getBoolean("enabled", false)).thenReturn(true);
+    when(mockPluginConfig.getString("webhookurl", "")).thenReturn("https://webook/");
+    when(mockPluginConfig.getString("channel", "general")).thenReturn("test-channel");
+    when(mockPluginConfig.getBoolean("publish-on-patch-set-created", true)).thenReturn(true);
+    when(mockPluginConfig.getBoolean("publish-on-private-to-public", true)).thenReturn(true);
+
+    when(mockMetricMaker.newCounter(eq("events/rejected"), any(Description.class)))
+        .thenReturn(mockRejectedEvents);
+
+    mockChange.project = PROJECT_NAME;
+
+    publishEventListener =
+        new PublishEventListener(
+            mockConfigFactory, mockProjectConfigCache, mockDeliveryExecutor, mockMetricMaker);
+  }
+
+  private <T extends ChangeEvent> T mockEvent(Class<T> eventClass) {
+    T event;
+    event = mock(eventClass);
+    event.change = Suppliers.ofInstance(mockChange);
+    when(event.getProjectNameKey()).thenReturn(projectNameKey);
+
+    return event;
   }
 
   @Test
   public void handlesPatchSetCreatedEvents() throws Exception {
-    // TODO: Add actual tests here
-    assertTrue(true);
+    publishEventListener.onEvent(mockEvent(PatchSetCreatedEvent.class));
+
+    verify(mockDeliveryExecutor)
+        .publish(
+            eq(PROJECT_NAME),
+            any(ProjectConfig.class),
+            ArgumentMatchers.<Callable<Utf8Buffer>>any());
+  }
+
+  @Test
+  public void handlesPrivateStateChangedEvents() throws Exception {
+    publishEventListener.onEvent(mockEvent(PrivateStateChangedEvent.class));
+
+    verify(mockDeliveryExecutor)
+        .publish(
+            eq(PROJECT_NAME),
+            any(ProjectConfig.class),
+            ArgumentMatchers.<Callable<Utf8Buffer>>any());
+  }
+
+  @Test
+  public void ignoresUnsupportedEvents() throws Exception {
+    Event event;
+    event = mock(RefUpdatedEvent.class);
+
+    publishEventListener.onEvent(event);
+
+    verify(mockDeliveryExecutor, never())
+        .publish(
+            anyString(), any(ProjectConfig.class), ArgumentMatchers.<Callable<Utf8Buffer>>any());
+  }
+
+  @Test
+  public void rejectsUnsupportedEventsWithoutLoadingConfig() throws Exception {
+    Event event;
+    event = mock(RefUpdatedEvent.class);
+
+    // The server wide config is only read once, when the listener is created
+    clearInvocations(mockConfigFactory);
+
+    publishEventListener.onEvent(event);
+    publishEventListener.onEvent(event);
+
+    verifyNoInteractions(mockConfigFactory, mockProjectConfigCache);
+    verify(mockRejectedEvents, times(2)).increment();
+  }
+
+  @Test
+  public void doesNotQueueWhenDisabled() throws Exception {
+    when(mockPluginConfig.getBoolean("enabled", false)).thenReturn(false);
+
+    publishEventListener.onEvent(mockEvent(PatchSetCreatedEvent.class));
+
+    verify(mockDeliveryExecutor, never())
+        .publish(
+            anyString(), any(ProjectConfig.class), ArgumentMatchers.<Callable<Utf8Buffer>>any());
+  }
+
+  @Test
+  public void doesNotQueueWhenEventTypeIsNotPublished() throws Exception {
+    when(mockPluginConfig.getBoolean("publish-on-patch-set-created", true)).thenReturn(false);
+
+    publishEventListener.onEvent(mockEvent(PatchSetCreatedEvent.class));
+
+    verify(mockDeliveryExecutor, never())
+        .publish(
+            anyString(), any(ProjectConfig.class), ArgumentMatchers.<Callable<Utf8Buffer>>any());
+  }
+
+  @Test
+  public void doesNotLoadChangeOfFilteredEvents() throws Exception {
+    when(mockPluginConfig.getBoolean("enabled", false)).thenReturn(false);
+
+    AtomicInteger loads;
+    loads = new AtomicInteger();
+
+    PatchSetCreatedEvent event;
+    event = mockEvent(PatchSetCreatedEvent.class);
+    event.change =
+        () -> {
+          loads.incrementAndGet();
+          return mockChange;
+        };
+
+    publishEventListener.onEvent(event);
+
+    assertThat(loads.get(), is(0));
+  }
+
+  @Test
+  public void coalescesEventsOfTheSameChange() throws Exception {
+    when(mockPluginConfig.getInt("delivery-coalesce-window", 0)).thenReturn(500);
+    when(mockPluginConfig.getBoolean("publish-on-reviewer-added", true)).thenReturn(true);
+    publishEventListener =
+        new PublishEventListener(
+            mockConfigFactory, mockProjectConfigCache, mockDeliveryExecutor, mockMetricMaker);
+
+    Change.Key changeKey;
+    changeKey = Change.key("I0123456789abcdef0123456789abcdef01234567");
+
+    PatchSetCreatedEvent patchSetCreated;
+    patchSetCreated = mockEvent(PatchSetCreatedEvent.class);
+    patchSetCreated.changeKey = changeKey;
+    patchSetCreated.refName = "refs/heads/master";
+    ReviewerAddedEvent reviewerAdded;
+    reviewerAdded = mockEvent(ReviewerAddedEvent.class);
+    reviewerAdded.changeKey = changeKey;
+    reviewerAdded.refName = "refs/heads/master";
+
+    publishEventListener.onEvent(patchSetCreated);
+    publishEventListener.onEvent(reviewerAdded);
+
+    ArgumentCaptor<Runnable> flush;
+    flush = ArgumentCaptor.forClass(Runnable.class);
+    verify(mockDeliveryExecutor).runLater(flush.capture(), eq(500L));
+    verify(mockDeliveryExecutor, never())
+        .publish(
+            anyString(), any(ProjectConfig.class), ArgumentMatchers.<Callable<Utf8Buffer>>any());
+
+    flush.getValue().run();
+
+    verify(mockDeliveryExecutor)
+        .publish(
+            eq(PROJECT_NAME),
+            any(ProjectConfig.class),
+            ArgumentMatchers.<Callable<Utf8Buffer>>any());
+  }
+
+  @Test
+  public void doesNotCoalesceCherryPicksOfAChange() throws Exception {
+    when(mockPluginConfig.getInt("delivery-coalesce-window", 0)).thenReturn(500);
+    publishEventListener =
+        new PublishEventListener(
+            mockConfigFactory, mockProjectConfigCache, mockDeliveryExecutor, mockMetricMaker);
+
+    Change.Key changeKey;
+    changeKey = Change.key("I0123456789abcdef0123456789abcdef01234567");
+
+    // The same Change-Id uploaded to two branches makes two changes
+    PatchSetCreatedEvent master;
+    master = mockEvent(PatchSetCreatedEvent.class);
+    master.changeKey = changeKey;
+    master.refName = "refs/heads/master";
+    PatchSetCreatedEvent stable;
+    stable = mockEvent(PatchSetCreatedEvent.class);
+    stable.changeKey = changeKey;
+    stable.refName = "refs/heads/stable-3.3";
+
+    publishEventListener.onEvent(master);
+    publishEventListener.onEvent(stable);
+
+    ArgumentCaptor<Runnable> flush;
+    flush = ArgumentCaptor.forClass(Runnable.class);
+    verify(mockDeliveryExecutor, times(2)).runLater(flush.capture(), eq(500L));
+
+    for (Runnable task : flush.getAllValues()) {
+      task.run();
+    }
+
+    verify(mockDeliveryExecutor, times(2))
+        .publish(
+            eq(PROJECT_NAME),
+            any(ProjectConfig.class),
+            ArgumentMatchers.<Callable<Utf8Buffer>>any());
   }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.client;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/** Tests for the SlackResponseReader class. */
+public class SlackResponseReaderTest {
+  private boolean cancelled;
+
+  private static String parse(String response) {
+    byte[] bytes;
+    bytes = response.getBytes(StandardCharsets.UTF_8);
+
+    return SlackResponseReader.parse(bytes, bytes.length, false);
+  }
+
+  @Test
+  public void returnsKnownCodesAsConstants() throws Exception {
+    assertThat(parse("ok"), is(sameInstance(SlackResponseReader.OK)));
+    assertThat(parse(" rate_limited\n"), is(sameInstance(SlackResponseReader.RATE_LIMITED)));
+    assertThat(parse("channel_not_found"), is(equalTo("channel_not_found")));
+  }
+
+  @Test
+  public void returnsOtherResponsesAsText() throws Exception {
+    assertThat(parse("something_new"), is(equalTo("something_new")));
+    assertThat(parse("<html>Bad Gateway</html>\r\n"), is(equalTo("<html>Bad Gateway</html>")));
+    assertThat(parse(""), is(equalTo("")));
+  }
+
+  @Test
+  public void cutsTruncatedResponsesInBetweenCodePoints() throws Exception {
+    byte[] bytes;
+    bytes = "caf\u00e9".getBytes(StandardCharsets.UTF_8);
+
+    assertThat(
+        SlackResponseReader.parse(bytes, bytes.length - 1, true),
+        is(equalTo("caf" + SlackResponseReader.TRUNCATED)));
+  }
+
+  @Test
+  public void keepsAtMostTheBufferOfLargeResponses() throws Exception {
+    HttpResponse.BodySubscriber<String> reader;
+    reader = subscribe();
+
+    byte[] chunk;
+    chunk = new byte[1000];
+    Arrays.fill(chunk, (byte) 'x');
+
+    reader.onNext(Arrays.asList(ByteBuffer.wrap(chunk), ByteBuffer.wrap(chunk)));
+    reader.onComplete();
+
+    String body;
+    body = reader.getBody().toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+    assertThat(body.length(), is(SlackResponseReader.MAX_BYTES + 1));
+    assertThat(body.endsWith(SlackResponseReader.TRUNCATED), is(true));
+    assertThat(cancelled, is(false));
+  }
+
+  @Test
+  public void givesUpOnEndlessResponses() throws Exception {
+    HttpResponse.BodySubscriber<String> reader;
+    reader = subscribe();
+
+    byte[] chunk;
+    chunk = new byte[16 * 1024];
+    Arrays.fill(chunk, (byte) 'x');
+
+    for (int i = 0; i < 8; i++) {
+      reader.onNext(Collections.singletonList(ByteBuffer.wrap(chunk)));
+    }
+
+    assertThat(reader.getBody().toCompletableFuture().isDone(), is(true));
+    assertThat(cancelled, is(true));
+  }
+
+  @Test
+  public void reusesTheBufferOfEachResponse() throws Exception {
+    read("warm_up");
+
+    int pooled;
+    pooled = SlackResponseReader.pooled();
+    assertThat(pooled > 0, is(true));
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(read("channel_not_found"), is(equalTo("channel_not_found")));
+      assertThat(SlackResponseReader.pooled(), is(pooled));
+    }
+  }
+
+  @Test
+  public void readsEmptyResponses() throws Exception {
+    HttpResponse.BodySubscriber<String> reader;
+    reader = subscribe();
+    reader.onComplete();
+
+    assertThat(reader.getBody().toCompletableFuture().get(5, TimeUnit.SECONDS), is(equalTo("")));
+  }
+
+  private String read(String response) throws Exception {
+    HttpResponse.BodySubscriber<String> reader;
+    reader = subscribe();
+    reader.onNext(
+        Collections.singletonList(ByteBuffer.wrap(response.getBytes(StandardCharsets.UTF_8))));
+    reader.onComplete();
+
+    return reader.getBody().toCompletableFuture().get(5, TimeUnit.SECONDS);
+  }
+
+  private HttpResponse.BodySubscriber<String> subscribe() {
+    HttpResponse.BodySubscriber<String> reader;
+    reader = SlackResponseReader.HANDLER.apply(null);
+    reader.onSubscribe(
+        new Flow.Subscription() {
+          @Override
+          public void request(long n) {}
+
+          @Override
+          public void cancel() {
+            cancelled = true;
+          }
+        });
+
+    return reader;
+  }
+}
@@ -0,0 +1,390 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.client;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.cisco.gerrit.plugins.slack.util.Utf8Buffer;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests for the classification of Slack responses by the WebhookClient class. */
+public class WebhookClientTest {
+  private HttpServer server;
+  private String webhookUrl;
+
+  private int status;
+  private String response;
+  private String retryAfter;
+
+  private String requestLength;
+  private byte[] requestBody;
+  private List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+
+  private WebhookClient client;
+
+  @Before
+  public void setup() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          clientPorts.add(exchange.getRemoteAddress().getPort());
+          requestLength = exchange.getRequestHeaders().getFirst("Content-Length");
+          requestBody = exchange.getRequestBody().readAllBytes();
+
+          byte[] body;
+          body = response.getBytes(StandardCharsets.UTF_8);
+
+          if (retryAfter != null) {
+            exchange.getResponseHeaders().add("Retry-After", retryAfter);
+          }
+          exchange.sendResponseHeaders(status, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+        });
+    server.start();
+
+    webhookUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/services/hook";
+
+    // No proxy configured
+    client = new WebhookClient(mock(ProjectConfig.class));
+  }
+
+  @After
+  public void teardown() throws Exception {
+    server.stop(0);
+  }
+
+  private DeliveryResult deliver(int status, String response) {
+    this.status = status;
+    this.response = response;
+
+    return client.deliver("{\"text\": \"test\"}", webhookUrl);
+  }
+
+  @Test
+  public void sendsEncodedPayloadWithItsLength() throws Exception {
+    status = 200;
+    response = "ok";
+
+    Utf8Buffer payload;
+    payload = Utf8Buffer.encode("{\"text\": \"caf\u00e9 \ud83d\ude00\"}");
+
+    DeliveryResult result;
+    result = client.deliver(payload, webhookUrl);
+
+    assertThat(result.isSuccess(), is(true));
+    assertThat(requestLength, is(equalTo(String.valueOf(payload.length()))));
+    assertThat(
+        new String(requestBody, StandardCharsets.UTF_8),
+        is(equalTo("{\"text\": \"caf\u00e9 \ud83d\ude00\"}")));
+  }
+
+  @Test
+  public void succeedsOnOk() throws Exception {
+    DeliveryResult result;
+    result = deliver(200, "ok");
+
+    assertThat(result.isSuccess(), is(true));
+  }
+
+  @Test
+  public void retriesAfterDelayAskedByRateLimit() throws Exception {
+    retryAfter = "3";
+
+    DeliveryResult result;
+    result = deliver(429, "rate_limited");
+
+    assertThat(result.isSuccess(), is(false));
+    assertThat(result.isRetryable(), is(true));
+    assertThat(result.getRetryAfter(), is(3000L));
+  }
+
+  @Test
+  public void retriesServerErrors() throws Exception {
+    DeliveryResult result;
+    result = deliver(503, "service_unavailable");
+
+    assertThat(result.isRetryable(), is(true));
+    assertThat(result.getRetryAfter(), is(-1L));
+  }
+
+  @Test
+  public void doesNotRetryInvalidPayload() throws Exception {
+    DeliveryResult result;
+    result = deliver(400, "invalid_payload");
+
+    assertThat(result.isSuccess(), is(false));
+    assertThat(result.isRetryable(), is(false));
+    assertThat(result.getStatus(), is(400));
+    assertThat(result.getError(), is(equalTo("invalid_payload")));
+  }
+
+  @Test
+  public void capsLargeErrorResponses() throws Exception {
+    StringBuilder page;
+    page = new StringBuilder();
+    while (page.length() < 1024 * 1024) {
+      page.append("<p>Bad Gateway</p>");
+    }
+
+    DeliveryResult result;
+    result = deliver(502, page.toString());
+
+    assertThat(result.isRetryable(), is(true));
+    assertThat(result.getError().length(), is(SlackResponseReader.MAX_BYTES + 1));
+  }
+
+  @Test
+  public void retriesRateLimitedResponses() throws Exception {
+    DeliveryResult result;
+    result = deliver(200, "rate_limited");
+
+    assertThat(result.isRetryable(), is(true));
+  }
+
+  @Test
+  public void doesNotRetryUnknownChannel() throws Exception {
+    DeliveryResult result;
+    result = deliver(404, "channel_not_found");
+
+    assertThat(result.isRetryable(), is(false));
+    assertThat(result.getError(), is(equalTo("channel_not_found")));
+  }
+
+  @Test
+  public void retriesRefusedConnections() throws Exception {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+
+    DeliveryResult result;
+    result = client.deliver("{\"text\": \"test\"}", "http://127.0.0.1:" + port + "/");
+
+    assertThat(result.isRetryable(), is(true));
+    assertThat(result.getStatus(), is(0));
+  }
+
+  @Test
+  public void reusesConnectionsAcrossMessages() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      assertThat(deliver(200, "ok").isSuccess(), is(true));
+    }
+
+    // Every message went over the connection of the first one
+    assertThat(clientPorts.size(), is(3));
+    assertThat(clientPorts.get(1), is(equalTo(clientPorts.get(0))));
+    assertThat(clientPorts.get(2), is(equalTo(clientPorts.get(0))));
+  }
+
+  @Test
+  public void doesNotRetryInvalidUrls() throws Exception {
+    DeliveryResult result;
+    result = client.deliver("{\"text\": \"test\"}", "not a url");
+
+    assertThat(result.isSuccess(), is(false));
+    assertThat(result.isRetryable(), is(false));
+  }
+
+  @Test
+  public void publishesAsynchronously() throws Exception {
+    status = 200;
+    response = "ok";
+
+    DeliveryResult result;
+    result =
+        client
+            .publishAsync("{\"text\": \"test\"}", webhookUrl)
+            .toCompletableFuture()
+            .get(5, TimeUnit.SECONDS);
+
+    assertThat(result.isSuccess(), is(true));
+    assertThat(
+        new String(requestBody, StandardCharsets.UTF_8), is(equalTo("{\"text\": \"test\"}")));
+  }
+
+  @Test
+  public void completesWithRetryableResultsWhenConnectionsAreRefused() throws Exception {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+
+    DeliveryResult result;
+    result =
+        client
+            .publishAsync("{\"text\": \"test\"}", "http://127.0.0.1:" + port + "/")
+            .toCompletableFuture()
+            .get(5, TimeUnit.SECONDS);
+
+    assertThat(result.isRetryable(), is(true));
+    assertThat(result.getStatus(), is(0));
+  }
+
+  @Test
+  public void timesOutWhenServerNeverResponds() throws Exception {
+    ProjectConfig config;
+    config = mock(ProjectConfig.class);
+    when(config.getReadTimeout()).thenReturn(200);
+    when(config.getRequestDeadline()).thenReturn(60000);
+
+    try (StalledServer stalled = new StalledServer(false)) {
+      long start;
+      start = System.nanoTime();
+
+      DeliveryResult result;
+      result = new WebhookClient(config).deliver("{\"text\": \"test\"}", stalled.getUrl());
+
+      assertThat(result.isRetryable(), is(true));
+      assertThat(result.getStatus(), is(0));
+      assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+    }
+  }
+
+  @Test
+  public void holdsDeadlineWhenPayloadNeverArrives() throws Exception {
+    ProjectConfig config;
+    config = mock(ProjectConfig.class);
+    when(config.getReadTimeout()).thenReturn(60000);
+    when(config.getRequestDeadline()).thenReturn(300);
+
+    try (StalledServer stalled = new StalledServer(true)) {
+      long start;
+      start = System.nanoTime();
+
+      DeliveryResult result;
+      result = new WebhookClient(config).deliver("{\"text\": \"test\"}", stalled.getUrl());
+
+      assertThat(result.isRetryable(), is(true));
+      assertThat(result.getError(), containsString("deadline"));
+      assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+    }
+  }
+
+  @Test
+  public void detachesMessageFromPoolAtDeadline() throws Exception {
+    ProjectConfig config;
+    config = mock(ProjectConfig.class);
+    when(config.getReadTimeout()).thenReturn(60000);
+    when(config.getRequestDeadline()).thenReturn(300);
+
+    try (StalledServer stalled = new StalledServer(true)) {
+      Utf8Buffer message;
+      message = Utf8Buffer.encode("{\"text\": \"test\"}");
+
+      byte[] array;
+      array = message.array();
+
+      DeliveryResult result;
+      result =
+          new WebhookClient(config)
+              .publishAsync(message, stalled.getUrl())
+              .toCompletableFuture()
+              .get(5, TimeUnit.SECONDS);
+      message.release();
+
+      assertThat(result.getError(), containsString("deadline"));
+
+      // The abandoned request may still read the array, so no later message may reuse it
+      List<Utf8Buffer> later = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        later.add(Utf8Buffer.encode("{\"text\": \"later\"}"));
+        assertThat(later.get(i).array() == array, is(false));
+      }
+      later.forEach(Utf8Buffer::release);
+    }
+  }
+
+  /**
+   * A server accepting connections but never completing a response, either sending nothing at all
+   * or only the response headers.
+   */
+  private static class StalledServer implements AutoCloseable {
+    private final ServerSocket serverSocket;
+    private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+    private final Thread acceptor;
+
+    StalledServer(boolean sendHeaders) throws IOException {
+      serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+      acceptor =
+          new Thread(
+              () -> {
+                try {
+                  while (true) {
+                    Socket socket = serverSocket.accept();
+                    sockets.add(socket);
+                    if (sendHeaders) {
+                      socket.getInputStream().read(new byte[8192]);
+                      socket
+                          .getOutputStream()
+                          .write(
+                              "HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\n"
+                                  .getBytes(StandardCharsets.US_ASCII));
+                      socket.getOutputStream().flush();
+                    }
+                  }
+                } catch (IOException e) {
+                  // Closed
+                }
+              });
+      acceptor.setDaemon(true);
+      acceptor.start();
+    }
+
+    String getUrl() {
+      return "http://127.0.0.1:" + serverSocket.getLocalPort() + "/services/hook";
+    }
+
+    @Override
+    public void close() throws IOException {
+      serverSocket.close();
+      for (Socket socket : sockets) {
+        socket.close();
+      }
+
+      try {
+        acceptor.join(5000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.client;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.cisco.gerrit.plugins.slack.config.ProxySettings;
+import java.net.Authenticator;
+import java.net.PasswordAuthentication;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import org.junit.Test;
+
+/** Tests for the WebhookTransport class. */
+public class WebhookTransportTest {
+  private WebhookTransport transport = new WebhookTransport();
+
+  @Test
+  public void sharesTheClient() throws Exception {
+    ProjectConfig config;
+    config = mock(ProjectConfig.class);
+
+    assertThat(transport.getClient(config), is(sameInstance(transport.getClient(config))));
+    assertThat(
+        transport.getClient(mock(ProjectConfig.class)),
+        is(sameInstance(transport.getClient(config))));
+  }
+
+  @Test
+  public void buildsTheClientAgainWhenTheProxyChanges() throws Exception {
+    ProjectConfig config;
+    config = mock(ProjectConfig.class);
+
+    HttpClient direct;
+    direct = transport.getClient(config);
+
+    when(config.getProxySettings()).thenReturn(new ProxySettings("proxy", 3128, "user", "secret"));
+
+    HttpClient proxied;
+    proxied = transport.getClient(config);
+
+    assertThat(proxied, is(not(sameInstance(direct))));
+    assertThat(proxied.proxy().isPresent(), is(true));
+
+    // Equal settings, e.g. of another project, reuse the client
+    when(config.getProxySettings()).thenReturn(new ProxySettings("proxy", 3128, "user", "secret"));
+    assertThat(transport.getClient(config), is(sameInstance(proxied)));
+
+    when(config.getProxySettings()).thenReturn(new ProxySettings("proxy", 3128, "user", "other"));
+    assertThat(transport.getClient(config), is(not(sameInstance(proxied))));
+  }
+
+  @Test
+  public void onlyAuthenticatesToTheProxy() throws Exception {
+    ProjectConfig config;
+    config = mock(ProjectConfig.class);
+    when(config.getProxySettings()).thenReturn(new ProxySettings("proxy", 3128, "user", "secret"));
+
+    Authenticator authenticator;
+    authenticator = transport.getClient(config).authenticator().get();
+
+    PasswordAuthentication credentials;
+    credentials = request(authenticator, Authenticator.RequestorType.PROXY);
+    assertThat(credentials.getUserName(), is(equalTo("user")));
+    assertThat(new String(credentials.getPassword()), is(equalTo("secret")));
+
+    assertThat(request(authenticator, Authenticator.RequestorType.SERVER), is(nullValue()));
+    assertThat(Authenticator.getDefault(), is(nullValue()));
+  }
+
+  private static PasswordAuthentication request(
+      Authenticator authenticator, Authenticator.RequestorType type) throws Exception {
+    return authenticator.requestPasswordAuthenticationInstance(
+        "proxy",
+        null,
+        3128,
+        "https",
+        "",
+        "basic",
+        new URL("https://hooks.slack.com/services/T0/B0/X"),
+        type);
+  }
+
+  @Test
+  public void parsesEachUrlOnce() throws Exception {
+    URI uri;
+    uri = transport.getUri("https://hooks.slack.com/services/T0/B0/X");
+
+    assertThat(transport.getUri("https://hooks.slack.com/services/T0/B0/X"), is(sameInstance(uri)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsRelativeUrls() throws Exception {
+    transport.getUri("/services/T0/B0/X");
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.config;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.cisco.gerrit.plugins.slack.message.TemplateCache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.collect.FluentIterable;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.extensions.events.GitReferenceUpdatedListener;
+import com.google.gerrit.server.config.AllProjectsName;
+import com.google.gerrit.server.config.PluginConfig;
+import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.gerrit.server.project.ProjectState;
+import java.util.Arrays;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests for the ProjectConfigCache class. */
+public class ProjectConfigCacheTest {
+  private PluginConfigFactory mockConfigFactory = mock(PluginConfigFactory.class);
+  private PluginConfig mockPluginConfig = mock(PluginConfig.class);
+  private ProjectCache mockProjectCache = mock(ProjectCache.class);
+
+  private Project.NameKey parent = Project.nameKey("parent");
+  private Project.NameKey child = Project.nameKey("child");
+  private Project.NameKey other = Project.nameKey("other");
+
+  private ProjectConfigCache cache;
+
+  @Before
+  public void setup() throws Exception {
+    // Setup mocks
+    when(mockConfigFactory.getFromProjectConfigWithInheritance(
+            any(Project.NameKey.class), eq(ProjectConfig.CONFIG_NAME)))
+        .thenReturn(mockPluginConfig);
+    when(mockConfigFactory.getFromGerritConfig(ProjectConfig.CONFIG_NAME))
+        .thenReturn(mockPluginConfig);
+
+    ProjectState parentState;
+    parentState = mockProjectState(parent);
+
+    ProjectState childState;
+    childState = mockProjectState(child, parentState);
+
+    ProjectState otherState;
+    otherState = mockProjectState(other);
+
+    when(mockProjectCache.get(parent)).thenReturn(Optional.of(parentState));
+    when(mockProjectCache.get(child)).thenReturn(Optional.of(childState));
+    when(mockProjectCache.get(other)).thenReturn(Optional.of(otherState));
+
+    cache =
+        new ProjectConfigCache(
+            CacheBuilder.newBuilder()
+                .build(CacheLoader.from(key -> new ProjectConfig(mockConfigFactory, key))),
+            mockProjectCache,
+            new AllProjectsName("All-Projects"));
+  }
+
+  private ProjectState mockProjectState(Project.NameKey name, ProjectState... parents) {
+    ProjectState state;
+    state = mock(ProjectState.class);
+    when(state.getNameKey()).thenReturn(name);
+    when(state.parents()).thenReturn(FluentIterable.from(Arrays.asList(parents)));
+
+    return state;
+  }
+
+  private GitReferenceUpdatedListener.Event mockEvent(String project, String ref) {
+    GitReferenceUpdatedListener.Event event;
+    event = mock(GitReferenceUpdatedListener.Event.class);
+    when(event.getProjectName()).thenReturn(project);
+    when(event.getRefName()).thenReturn(ref);
+
+    return event;
+  }
+
+  @Test
+  public void returnsCachedConfig() throws Exception {
+    assertThat(cache.get(child), is(sameInstance(cache.get(child))));
+  }
+
+  @Test
+  public void invalidatesConfigOfUpdatedProject() throws Exception {
+    ProjectConfig before;
+    before = cache.get(other);
+
+    cache.onGitReferenceUpdated(mockEvent("other", RefNames.REFS_CONFIG));
+
+    assertThat(cache.get(other), is(not(sameInstance(before))));
+  }
+
+  @Test
+  public void invalidatesConfigOfChildProjects() throws Exception {
+    ProjectConfig childBefore;
+    childBefore = cache.get(child);
+
+    ProjectConfig otherBefore;
+    otherBefore = cache.get(other);
+
+    cache.onGitReferenceUpdated(mockEvent("parent", RefNames.REFS_CONFIG));
+
+    assertThat(cache.get(child), is(not(sameInstance(childBefore))));
+    assertThat(cache.get(other), is(sameInstance(otherBefore)));
+  }
+
+  @Test
+  public void invalidatesEverythingWhenAllProjectsIsUpdated() throws Exception {
+    ProjectConfig childBefore;
+    childBefore = cache.get(child);
+
+    ProjectConfig otherBefore;
+    otherBefore = cache.get(other);
+
+    cache.onGitReferenceUpdated(mockEvent("All-Projects", RefNames.REFS_CONFIG));
+
+    assertThat(cache.get(child), is(not(sameInstance(childBefore))));
+    assertThat(cache.get(other), is(not(sameInstance(otherBefore))));
+  }
+
+  @Test
+  public void invalidatesConfigOfUnknownProjects() throws Exception {
+    ProjectConfig before;
+    before = cache.get(child);
+
+    when(mockProjectCache.get(child)).thenReturn(Optional.empty());
+    cache.onGitReferenceUpdated(mockEvent("parent", RefNames.REFS_CONFIG));
+
+    assertThat(cache.get(child), is(not(sameInstance(before))));
+  }
+
+  @Test
+  public void ignoresUpdatesOfOtherRefs() throws Exception {
+    ProjectConfig before;
+    before = cache.get(other);
+
+    cache.onGitReferenceUpdated(mockEvent("other", "refs/heads/master"));
+
+    assertThat(cache.get(other), is(sameInstance(before)));
+  }
+
+  @Test
+  public void loadsTemplateOnlyWhenFirstUsed() throws Exception {
+    when(mockPluginConfig.getBoolean("enabled", false)).thenReturn(true);
+    when(mockPluginConfig.getString("template", "")).thenReturn("template.json");
+
+    TemplateCache mockTemplateCache;
+    mockTemplateCache = mock(TemplateCache.class);
+
+    ProjectConfig config;
+    config = new ProjectConfigCache.Loader(mockConfigFactory, mockTemplateCache).load(other);
+
+    verifyNoInteractions(mockTemplateCache);
+
+    // A template that isn't found isn't looked up again either
+    assertThat(config.getMessageTemplate(), is(nullValue()));
+    assertThat(config.getMessageTemplate(), is(nullValue()));
+    verify(mockTemplateCache, times(1)).get(other, "template.json");
+  }
+}
@@ -19,14 +19,21 @@ package com.cisco.gerrit.plugins.slack.config;
 
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.cisco.gerrit.plugins.slack.message.MessageFormat;
 import com.google.gerrit.entities.Project;
 import com.google.gerrit.server.config.PluginConfig;
 import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.gerrit.server.project.NoSuchProjectException;
+import org.eclipse.jgit.lib.Config;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -63,6 +70,8 @@ public class ProjectConfigTest {
     when(mockPluginConfig.getBoolean("publish-on-change-merged", true)).thenReturn(true);
     when(mockPluginConfig.getBoolean("publish-on-comment-added", true)).thenReturn(true);
     when(mockPluginConfig.getBoolean("publish-on-reviewer-added", true)).thenReturn(true);
+    when(mockPluginConfig.getEnum("format", MessageFormat.ATTACHMENTS))
+        .thenReturn(MessageFormat.BLOCKS);
 
     config = new ProjectConfig(mockConfigFactory, PROJECT_NAME);
   }
@@ -92,6 +101,33 @@ public class ProjectConfigTest {
     assertThat(config.getIgnoreCommentAuthor(), is(equalTo("^jenkins.*")));
   }
 
+  @Test
+  public void testGetIgnorePatterns() throws Exception {
+    assertThat(config.getIgnorePattern().pattern(), is(equalTo("^WIP.*")));
+    assertThat(config.getIgnoreCommentAuthorPattern().pattern(), is(equalTo("^jenkins.*")));
+  }
+
+  @Test
+  public void treatsEmptyIgnorePatternsAsNoFilter() throws Exception {
+    when(mockPluginConfig.getString("ignore", "")).thenReturn("");
+    when(mockPluginConfig.getString("ignore-comment-author", "")).thenReturn(null);
+
+    config = new ProjectConfig(mockConfigFactory, PROJECT_NAME);
+
+    assertThat(config.getIgnorePattern(), is(nullValue()));
+    assertThat(config.getIgnoreCommentAuthorPattern(), is(nullValue()));
+  }
+
+  @Test
+  public void treatsInvalidIgnorePatternsAsNoFilter() throws Exception {
+    when(mockPluginConfig.getString("ignore", "")).thenReturn("(unclosed");
+
+    config = new ProjectConfig(mockConfigFactory, PROJECT_NAME);
+
+    assertThat(config.getIgnorePattern(), is(nullValue()));
+    assertThat(config.getIgnore(), is(equalTo("(unclosed")));
+  }
+
   @Test
   public void testShouldPublishOnPatchSetCreated() throws Exception {
     assertThat(config.shouldPublishOnPatchSetCreated(), is(equalTo(true)));
@@ -111,4 +147,98 @@ public class ProjectConfigTest {
   public void testShouldPublishOnReviewerAdded() throws Exception {
     assertThat(config.shouldPublishOnReviewerAdded(), is(equalTo(true)));
   }
+
+  @Test
+  public void testGetFormat() throws Exception {
+    assertThat(config.getFormat(), is(equalTo(MessageFormat.BLOCKS)));
+  }
+
+  @Test
+  public void readsFormatCaseInsensitively() throws Exception {
+    Config gerritConfig;
+    gerritConfig = new Config();
+    gerritConfig.setString("plugin", ProjectConfig.CONFIG_NAME, "format", "Blocks");
+
+    config =
+        new ProjectConfig(
+            PluginConfig.createFromGerritConfig(ProjectConfig.CONFIG_NAME, gerritConfig),
+            mockPluginConfig);
+
+    assertThat(config.getFormat(), is(equalTo(MessageFormat.BLOCKS)));
+  }
+
+  @Test
+  public void fallsBackToAttachmentsForInvalidFormats() throws Exception {
+    Config gerritConfig;
+    gerritConfig = new Config();
+    gerritConfig.setString("plugin", ProjectConfig.CONFIG_NAME, "format", "cards");
+
+    config =
+        new ProjectConfig(
+            PluginConfig.createFromGerritConfig(ProjectConfig.CONFIG_NAME, gerritConfig),
+            mockPluginConfig);
+
+    assertThat(config.getFormat(), is(equalTo(MessageFormat.ATTACHMENTS)));
+  }
+
+  @Test
+  public void fallsBackToDefaultMessageLimits() throws Exception {
+    when(mockPluginConfig.getInt("message-max-bytes", 3000)).thenReturn(0);
+    when(mockPluginConfig.getInt("message-max-lines", 30)).thenReturn(-1);
+
+    config = new ProjectConfig(mockConfigFactory, PROJECT_NAME);
+
+    assertThat(config.getMessageMaxBytes(), is(equalTo(3000)));
+    assertThat(config.getMessageMaxLines(), is(equalTo(30)));
+  }
+
+  @Test
+  public void testGetTimeouts() throws Exception {
+    when(mockPluginConfig.getInt("connect-timeout", 5000)).thenReturn(1000);
+    when(mockPluginConfig.getInt("read-timeout", 10000)).thenReturn(0);
+
+    config = new ProjectConfig(mockConfigFactory, PROJECT_NAME);
+
+    assertThat(config.getConnectTimeout(), is(equalTo(1000)));
+    assertThat(config.getReadTimeout(), is(equalTo(10000)));
+    assertThat(config.getRequestDeadline(), is(equalTo(30000)));
+  }
+
+  @Test
+  public void testGetProxySettings() throws Exception {
+    assertThat(config.getProxySettings(), is(nullValue()));
+
+    when(mockPluginConfig.getString("proxy-host", null)).thenReturn("proxy");
+    when(mockPluginConfig.getInt("proxy-port", 8080)).thenReturn(3128);
+    when(mockPluginConfig.getString("proxy-username", null)).thenReturn("user");
+    when(mockPluginConfig.getString("proxy-password", null)).thenReturn("secret");
+
+    ProxySettings settings;
+    settings = new ProjectConfig(mockConfigFactory, PROJECT_NAME).getProxySettings();
+
+    assertThat(
+        settings,
+        is(equalTo(new ProjectConfig(mockConfigFactory, PROJECT_NAME).getProxySettings())));
+    assertThat(settings.hasCredentials(), is(true));
+    assertThat(settings.toString(), is(equalTo("proxy:3128 as user")));
+  }
+
+  @Test
+  public void resolvesEachConfigOnce() throws Exception {
+    verify(mockConfigFactory, times(1))
+        .getFromProjectConfigWithInheritance(
+            Project.NameKey.parse(PROJECT_NAME), ProjectConfig.CONFIG_NAME);
+    verify(mockConfigFactory, times(1)).getFromGerritConfig(ProjectConfig.CONFIG_NAME);
+  }
+
+  @Test
+  public void isDisabledForMissingProjects() throws Exception {
+    Project.NameKey missing;
+    missing = Project.NameKey.parse("missing-project");
+
+    when(mockConfigFactory.getFromProjectConfigWithInheritance(missing, ProjectConfig.CONFIG_NAME))
+        .thenThrow(new NoSuchProjectException(missing));
+
+    assertFalse(new ProjectConfig(mockConfigFactory, missing).isEnabled());
+  }
 }
@@ -0,0 +1,551 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.delivery;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.cisco.gerrit.plugins.slack.config.ProjectConfigCache;
+import com.cisco.gerrit.plugins.slack.util.Utf8Buffer;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.metrics.DisabledMetricMaker;
+import com.google.gerrit.server.config.PluginConfig;
+import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.gerrit.server.git.WorkQueue;
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests for the DeliveryExecutor class. */
+public class DeliveryExecutorTest {
+  private static final String WEBHOOK_URL = "https://webhook/";
+  private static final int CAPACITY = 100;
+
+  @Rule public TemporaryFolder dataDirectory = new TemporaryFolder();
+
+  private WorkQueue mockWorkQueue = mock(WorkQueue.class);
+  private PluginConfigFactory mockConfigFactory = mock(PluginConfigFactory.class);
+  private PluginConfig mockPluginConfig = mock(PluginConfig.class);
+  private ProjectConfigCache mockProjectConfigCache = mock(ProjectConfigCache.class);
+
+  private DeliveryExecutor deliveryExecutor;
+
+  @Before
+  public void setup() throws Exception {
+    // Setup mocks
+    when(mockConfigFactory.getFromGerritConfig(ProjectConfig.CONFIG_NAME))
+        .thenReturn(mockPluginConfig);
+    when(mockPluginConfig.getInt("delivery-threads", 2)).thenReturn(4);
+    when(mockPluginConfig.getInt("delivery-queue-capacity", 1000)).thenReturn(CAPACITY);
+    when(mockWorkQueue.createQueue(4, DeliveryExecutor.QUEUE_NAME, true))
+        .thenAnswer(invocation -> new ScheduledThreadPoolExecutor(4));
+    when(mockWorkQueue.createQueue(1, DeliveryExecutor.QUEUE_NAME + "-Timer", true))
+        .thenAnswer(invocation -> new ScheduledThreadPoolExecutor(1));
+
+    deliveryExecutor =
+        new DeliveryExecutor(
+            mockWorkQueue,
+            mockConfigFactory,
+            mockProjectConfigCache,
+            dataDirectory.getRoot().toPath(),
+            new DisabledMetricMaker());
+    deliveryExecutor.start();
+  }
+
+  @After
+  public void teardown() throws Exception {
+    deliveryExecutor.stop();
+  }
+
+  @Test
+  public void runsSubmittedTasks() throws Exception {
+    CountDownLatch done = new CountDownLatch(1);
+
+    assertThat(deliveryExecutor.submit(WEBHOOK_URL, "general", done::countDown), is(true));
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void rejectsTasksWhenQueueIsFull() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    Runnable blocked =
+        () -> {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        };
+
+    for (int i = 0; i < CAPACITY; i++) {
+      assertThat(deliveryExecutor.submit(WEBHOOK_URL, "channel" + i % 8, blocked), is(true));
+    }
+    assertThat(deliveryExecutor.submit(WEBHOOK_URL, "general", blocked), is(false));
+
+    release.countDown();
+  }
+
+  @Test
+  public void runsTasksOfALaneInOrder() throws Exception {
+    List<Integer> published = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch done = new CountDownLatch(CAPACITY);
+
+    for (int i = 0; i < CAPACITY; i++) {
+      int number = i;
+      deliveryExecutor.submit(
+          WEBHOOK_URL,
+          "general",
+          () -> {
+            published.add(number);
+            done.countDown();
+          });
+    }
+
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    for (int i = 0; i < CAPACITY; i++) {
+      assertThat(published.get(i), is(i));
+    }
+  }
+
+  @Test
+  public void runsLanesInParallel() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch otherLane = new CountDownLatch(1);
+
+    deliveryExecutor.submit(
+        WEBHOOK_URL,
+        "slow",
+        () -> {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    deliveryExecutor.submit(WEBHOOK_URL, "fast", otherLane::countDown);
+
+    // The second lane must not wait for the first one
+    assertTrue(otherLane.await(5, TimeUnit.SECONDS));
+
+    release.countDown();
+  }
+
+  @Test
+  public void acceptsTasksAgainOnceQueueDrains() throws Exception {
+    CountDownLatch first = new CountDownLatch(CAPACITY);
+    for (int i = 0; i < CAPACITY; i++) {
+      assertThat(deliveryExecutor.submit(WEBHOOK_URL, "general", first::countDown), is(true));
+    }
+    assertTrue(first.await(5, TimeUnit.SECONDS));
+
+    // Slots are released just after each task finishes
+    CountDownLatch second = new CountDownLatch(1);
+    long deadline = System.currentTimeMillis() + 5000;
+    boolean queued = false;
+    while (!queued && System.currentTimeMillis() < deadline) {
+      queued = deliveryExecutor.submit(WEBHOOK_URL, "general", second::countDown);
+    }
+
+    assertThat(queued, is(true));
+    assertTrue(second.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void runsTasksOfALaneInOrderOnVirtualThreads() throws Exception {
+    // Falls back to the thread pool on JVMs without virtual threads
+    deliveryExecutor.stop();
+    when(mockPluginConfig.getBoolean("delivery-virtual-threads", false)).thenReturn(true);
+    deliveryExecutor =
+        new DeliveryExecutor(
+            mockWorkQueue,
+            mockConfigFactory,
+            mockProjectConfigCache,
+            dataDirectory.getRoot().toPath(),
+            new DisabledMetricMaker());
+    deliveryExecutor.start();
+
+    List<Integer> published = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch done = new CountDownLatch(CAPACITY);
+
+    for (int i = 0; i < CAPACITY; i++) {
+      int number = i;
+      deliveryExecutor.submit(
+          WEBHOOK_URL,
+          "channel" + number % 4,
+          () -> {
+            published.add(number);
+            done.countDown();
+          });
+    }
+
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    for (int lane = 0; lane < 4; lane++) {
+      int previous = -1;
+      for (int number : published) {
+        if (number % 4 == lane) {
+          assertTrue(number > previous);
+          previous = number;
+        }
+      }
+    }
+  }
+
+  @Test
+  public void capsTheRequestsInFlight() throws Exception {
+    deliveryExecutor.stop();
+    when(mockPluginConfig.getInt("delivery-max-concurrency", 64)).thenReturn(2);
+    deliveryExecutor =
+        new DeliveryExecutor(
+            mockWorkQueue,
+            mockConfigFactory,
+            mockProjectConfigCache,
+            dataDirectory.getRoot().toPath(),
+            new DisabledMetricMaker());
+    deliveryExecutor.start();
+
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    CountDownLatch received = new CountDownLatch(3);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch published = new CountDownLatch(6);
+
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext(
+        "/",
+        exchange -> {
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          received.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          exchange.getRequestBody().readAllBytes();
+
+          byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+          inFlight.decrementAndGet();
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+          published.countDown();
+        });
+    server.start();
+
+    try {
+      // Six lanes, each with a message ready to be published
+      for (int i = 0; i < 6; i++) {
+        ProjectConfig mockProjectConfig = mock(ProjectConfig.class);
+        when(mockProjectConfig.getWebhookUrl())
+            .thenReturn("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        when(mockProjectConfig.getChannel()).thenReturn("channel" + i);
+
+        deliveryExecutor.publish(
+            "test-project",
+            mockProjectConfig,
+            () -> Utf8Buffer.wrap("{\"text\":\"message\"}".getBytes(StandardCharsets.UTF_8)));
+      }
+
+      // The third request waits for one of the first two to complete
+      assertThat(received.await(200, TimeUnit.MILLISECONDS), is(false));
+      assertThat(received.getCount(), is(1L));
+
+      release.countDown();
+      assertTrue(published.await(5, TimeUnit.SECONDS));
+      assertThat(maxInFlight.get(), is(2));
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  public void runsTasksAgainWhenAsked() throws Exception {
+    List<String> published = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch done = new CountDownLatch(1);
+
+    deliveryExecutor.submit(
+        WEBHOOK_URL,
+        "general",
+        new DeliveryTask() {
+          private int attempts;
+
+          @Override
+          public long run() {
+            published.add("attempt " + ++attempts);
+            return attempts < 3 ? 10 : DONE;
+          }
+        });
+    deliveryExecutor.submit(
+        WEBHOOK_URL,
+        "general",
+        () -> {
+          published.add("next");
+          done.countDown();
+        });
+
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    assertThat(published, is(Arrays.asList("attempt 1", "attempt 2", "attempt 3", "next")));
+  }
+
+  @Test
+  public void doesNotHoldThreadsWhileWaitingToRunAgain() throws Exception {
+    CountDownLatch done = new CountDownLatch(8);
+
+    // More waiting lanes than threads
+    for (int i = 0; i < 8; i++) {
+      deliveryExecutor.submit(WEBHOOK_URL, "waiting" + i, () -> TimeUnit.MINUTES.toMillis(1));
+    }
+    for (int i = 0; i < 8; i++) {
+      deliveryExecutor.submit(WEBHOOK_URL, "other" + i, done::countDown);
+    }
+
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void doesNotHoldThreadsWhileTasksRunAsynchronously() throws Exception {
+    List<CompletableFuture<Long>> inFlight = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch started = new CountDownLatch(50);
+    CountDownLatch done = new CountDownLatch(1);
+
+    // Many more tasks in flight than threads
+    for (int i = 0; i < 50; i++) {
+      deliveryExecutor.submit(
+          WEBHOOK_URL,
+          "channel" + i,
+          new DeliveryTask() {
+            @Override
+            public long run() {
+              throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletionStage<Long> runAsync() {
+              CompletableFuture<Long> response = new CompletableFuture<>();
+              inFlight.add(response);
+              started.countDown();
+              return response;
+            }
+          });
+    }
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    // The lane waits for its task to complete before running the next one
+    deliveryExecutor.submit(WEBHOOK_URL, "channel0", done::countDown);
+    assertThat(done.await(200, TimeUnit.MILLISECONDS), is(false));
+
+    for (CompletableFuture<Long> response : inFlight) {
+      response.complete(DeliveryTask.DONE);
+    }
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void journalsMessagesQueuedBehindARetry() throws Exception {
+    ProjectConfig mockProjectConfig = mock(ProjectConfig.class);
+    when(mockProjectConfig.getWebhookUrl()).thenReturn(WEBHOOK_URL);
+    when(mockProjectConfig.getChannel()).thenReturn("general");
+
+    // The head of the lane waits for a retry while the message is queued behind it
+    deliveryExecutor.submit(WEBHOOK_URL, "general", () -> TimeUnit.MINUTES.toMillis(1));
+    assertThat(
+        deliveryExecutor.publish(
+            "test-project",
+            mockProjectConfig,
+            () -> Utf8Buffer.wrap("{\"text\":\"queued\"}".getBytes(StandardCharsets.UTF_8))),
+        is(true));
+
+    deliveryExecutor.stop();
+
+    Outbox outbox = new Outbox(dataDirectory.getRoot().toPath().resolve("outbox"), 1024);
+    List<OutboxEntry> pending = outbox.open();
+    outbox.close();
+
+    assertThat(pending.size(), is(1));
+    assertThat(pending.get(0).getChannel(), is("general"));
+    assertThat(pending.get(0).getMessage(), is("{\"text\":\"queued\"}"));
+  }
+
+  @Test
+  public void journalsMessagesRenderedWhileStopping() throws Exception {
+    ProjectConfig mockProjectConfig = mock(ProjectConfig.class);
+    when(mockProjectConfig.getWebhookUrl()).thenReturn(WEBHOOK_URL);
+    when(mockProjectConfig.getChannel()).thenReturn("general");
+
+    CountDownLatch rendering = new CountDownLatch(1);
+    CountDownLatch slowRender = new CountDownLatch(1);
+
+    // The second message is only rendered once the thread pool is shut down
+    deliveryExecutor.submit(WEBHOOK_URL, "general", () -> TimeUnit.MINUTES.toMillis(1));
+    deliveryExecutor.publish(
+        "test-project",
+        mockProjectConfig,
+        () -> {
+          rendering.countDown();
+          slowRender.await();
+          return Utf8Buffer.wrap("{\"text\":\"first\"}".getBytes(StandardCharsets.UTF_8));
+        });
+    deliveryExecutor.publish(
+        "test-project",
+        mockProjectConfig,
+        () -> Utf8Buffer.wrap("{\"text\":\"second\"}".getBytes(StandardCharsets.UTF_8)));
+    assertTrue(rendering.await(5, TimeUnit.SECONDS));
+
+    Thread stopping = new Thread(deliveryExecutor::stop);
+    stopping.start();
+    slowRender.countDown();
+    stopping.join(TimeUnit.SECONDS.toMillis(15));
+
+    Outbox outbox = new Outbox(dataDirectory.getRoot().toPath().resolve("outbox"), 1024);
+    List<OutboxEntry> pending = outbox.open();
+    outbox.close();
+
+    assertThat(pending.size(), is(2));
+    assertThat(pending.get(0).getMessage(), is("{\"text\":\"first\"}"));
+    assertThat(pending.get(1).getMessage(), is("{\"text\":\"second\"}"));
+  }
+
+  @Test
+  public void replaysOutboxOnceThePreviousInstanceStopped() throws Exception {
+    ProjectConfig mockProjectConfig = mock(ProjectConfig.class);
+    when(mockProjectConfig.getWebhookUrl()).thenReturn(WEBHOOK_URL);
+    when(mockProjectConfig.getChannel()).thenReturn("general");
+
+    CountDownLatch replayed = new CountDownLatch(1);
+    when(mockProjectConfigCache.get(Project.nameKey("test-project")))
+        .thenAnswer(
+            invocation -> {
+              replayed.countDown();
+              return mock(ProjectConfig.class);
+            });
+
+    deliveryExecutor.submit(WEBHOOK_URL, "general", () -> TimeUnit.MINUTES.toMillis(1));
+    deliveryExecutor.publish(
+        "test-project",
+        mockProjectConfig,
+        () -> Utf8Buffer.wrap("{\"text\":\"queued\"}".getBytes(StandardCharsets.UTF_8)));
+
+    // Like a reload, which starts the new instance before stopping the old one
+    DeliveryExecutor reloaded =
+        new DeliveryExecutor(
+            mockWorkQueue,
+            mockConfigFactory,
+            mockProjectConfigCache,
+            dataDirectory.getRoot().toPath(),
+            new DisabledMetricMaker());
+    reloaded.start();
+    try {
+      assertThat(replayed.await(200, TimeUnit.MILLISECONDS), is(false));
+
+      deliveryExecutor.stop();
+      assertTrue(replayed.await(5, TimeUnit.SECONDS));
+    } finally {
+      reloaded.stop();
+    }
+  }
+
+  @Test
+  public void publishesMessagesInOrderOfAcceptance() throws Exception {
+    ProjectConfig mockProjectConfig = mock(ProjectConfig.class);
+    when(mockProjectConfig.getWebhookUrl()).thenReturn(WEBHOOK_URL);
+    when(mockProjectConfig.getChannel()).thenReturn("general");
+
+    List<String> rendered = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch slowRender = new CountDownLatch(1);
+    CountDownLatch secondRendered = new CountDownLatch(1);
+
+    deliveryExecutor.publish(
+        "test-project",
+        mockProjectConfig,
+        () -> {
+          slowRender.await();
+          rendered.add("first");
+          return null;
+        });
+    deliveryExecutor.publish(
+        "test-project",
+        mockProjectConfig,
+        () -> {
+          rendered.add("second");
+          secondRendered.countDown();
+          return null;
+        });
+
+    // The second message isn't rendered ahead of the first one
+    assertThat(secondRendered.await(200, TimeUnit.MILLISECONDS), is(false));
+
+    slowRender.countDown();
+    assertTrue(secondRendered.await(5, TimeUnit.SECONDS));
+    assertThat(rendered, is(Arrays.asList("first", "second")));
+  }
+
+  @Test
+  public void replaysOutboxWithCachedProjectConfigs() throws Exception {
+    deliveryExecutor.stop();
+
+    Outbox outbox = new Outbox(dataDirectory.getRoot().toPath().resolve("outbox"), 1024);
+    outbox.open();
+    outbox.append("test-project", WEBHOOK_URL, "general", "{\"text\":\"first\"}");
+    outbox.append("test-project", WEBHOOK_URL, "general", "{\"text\":\"second\"}");
+    outbox.close();
+
+    // The project has been disabled since, so its messages are acknowledged unpublished
+    ProjectConfig mockProjectConfig = mock(ProjectConfig.class);
+    when(mockProjectConfigCache.get(Project.nameKey("test-project"))).thenReturn(mockProjectConfig);
+
+    deliveryExecutor =
+        new DeliveryExecutor(
+            mockWorkQueue,
+            mockConfigFactory,
+            mockProjectConfigCache,
+            dataDirectory.getRoot().toPath(),
+            new DisabledMetricMaker());
+    deliveryExecutor.start();
+
+    verify(mockProjectConfigCache, timeout(5000).times(2)).get(Project.nameKey("test-project"));
+    verify(mockConfigFactory, never())
+        .getFromProjectConfigWithInheritance(any(Project.NameKey.class), anyString());
+  }
+}
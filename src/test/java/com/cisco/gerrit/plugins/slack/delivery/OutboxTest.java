@@ -0,0 +1,221 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.delivery;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests for the Outbox class. */
+public class OutboxTest {
+  private static final String WEBHOOK_URL = "https://webhook/";
+  private static final long SEGMENT_SIZE = 1024 * 1024;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path directory;
+
+  @Before
+  public void setup() throws Exception {
+    directory = folder.getRoot().toPath().resolve("outbox");
+  }
+
+  private List<Path> segments() throws Exception {
+    List<Path> segments;
+    segments = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.seg")) {
+      stream.forEach(segments::add);
+    }
+    return segments;
+  }
+
+  @Test
+  public void replaysUnacknowledgedEntries() throws Exception {
+    Outbox outbox;
+    outbox = new Outbox(directory, SEGMENT_SIZE);
+    outbox.open();
+
+    OutboxEntry first;
+    first = outbox.append("test-project", WEBHOOK_URL, "general", "{\"text\": \"first\"}");
+    outbox.append("test-project", WEBHOOK_URL, "general", "{\"text\": \"second \u2713\"}");
+    outbox.append("other-project", WEBHOOK_URL, "other", "{\"text\": \"third\"}");
+    outbox.acknowledge(first);
+    outbox.close();
+
+    List<OutboxEntry> pending;
+    pending = new Outbox(directory, SEGMENT_SIZE).open();
+
+    assertThat(pending.size(), is(2));
+    assertThat(pending.get(0).getProject(), is(equalTo("test-project")));
+    assertThat(pending.get(0).getWebhookUrl(), is(equalTo(WEBHOOK_URL)));
+    assertThat(pending.get(0).getChannel(), is(equalTo("general")));
+    assertThat(pending.get(0).getMessage(), is(equalTo("{\"text\": \"second \u2713\"}")));
+    assertThat(pending.get(1).getProject(), is(equalTo("other-project")));
+    assertThat(pending.get(1).getChannel(), is(equalTo("other")));
+  }
+
+  @Test
+  public void continuesSequenceAfterReopening() throws Exception {
+    Outbox outbox;
+    outbox = new Outbox(directory, SEGMENT_SIZE);
+    outbox.open();
+
+    OutboxEntry first;
+    first = outbox.append("test-project", WEBHOOK_URL, "general", "first");
+    outbox.close();
+
+    outbox = new Outbox(directory, SEGMENT_SIZE);
+    outbox.open();
+
+    OutboxEntry second;
+    second = outbox.append("test-project", WEBHOOK_URL, "general", "second");
+
+    assertThat(second.getSequence() > first.getSequence(), is(true));
+  }
+
+  @Test
+  public void ignoresIncompleteRecordAtTheEnd() throws Exception {
+    Outbox outbox;
+    outbox = new Outbox(directory, SEGMENT_SIZE);
+    outbox.open();
+    outbox.append("test-project", WEBHOOK_URL, "general", "first");
+    outbox.close();
+
+    // A record cut short by a crash
+    try (FileChannel channel = FileChannel.open(segments().get(0), StandardOpenOption.APPEND)) {
+      channel.write(ByteBuffer.wrap(new byte[] {1, 0, 0, 1, 0, 0, 0}));
+    }
+
+    outbox = new Outbox(directory, SEGMENT_SIZE);
+    List<OutboxEntry> pending;
+    pending = outbox.open();
+
+    assertThat(pending.size(), is(1));
+    assertThat(pending.get(0).getMessage(), is(equalTo("first")));
+  }
+
+  @Test
+  public void ignoresCorruptRecords() throws Exception {
+    Outbox outbox;
+    outbox = new Outbox(directory, SEGMENT_SIZE);
+    outbox.open();
+    outbox.append("test-project", WEBHOOK_URL, "general", "first");
+    outbox.close();
+
+    Path segment;
+    segment = segments().get(0);
+
+    byte[] data;
+    data = Files.readAllBytes(segment);
+    data[data.length - 1] ^= 0x20;
+    Files.write(segment, data);
+
+    assertThat(new Outbox(directory, SEGMENT_SIZE).open().size(), is(0));
+  }
+
+  @Test
+  public void compactsAcknowledgedSegments() throws Exception {
+    Outbox outbox;
+    outbox = new Outbox(directory, 256);
+    outbox.open();
+
+    OutboxEntry kept;
+    kept = outbox.append("test-project", WEBHOOK_URL, "general", "kept");
+    for (int i = 0; i < 100; i++) {
+      outbox.acknowledge(outbox.append("test-project", WEBHOOK_URL, "general", "message " + i));
+    }
+    assertThat(segments().size() > 2, is(true));
+
+    outbox.compact();
+    outbox.close();
+
+    assertThat(segments().size(), is(1));
+
+    List<OutboxEntry> pending;
+    pending = new Outbox(directory, 256).open();
+
+    assertThat(pending.size(), is(1));
+    assertThat(pending.get(0).getSequence(), is(kept.getSequence()));
+    assertThat(pending.get(0).getMessage(), is(equalTo("kept")));
+  }
+
+  @Test
+  public void deletesFullyAcknowledgedSegmentsOnOpen() throws Exception {
+    Outbox outbox;
+    outbox = new Outbox(directory, SEGMENT_SIZE);
+    outbox.open();
+    outbox.acknowledge(outbox.append("test-project", WEBHOOK_URL, "general", "first"));
+    outbox.close();
+
+    outbox = new Outbox(directory, SEGMENT_SIZE);
+    outbox.open();
+
+    assertThat(outbox.size(), is(0));
+    assertThat(segments().size(), is(1));
+  }
+
+  @Test
+  public void isOnlyOpenedOnceAtATime() throws Exception {
+    Outbox outbox;
+    outbox = new Outbox(directory, SEGMENT_SIZE);
+    outbox.open();
+    outbox.append("test-project", WEBHOOK_URL, "general", "first");
+
+    Outbox other;
+    other = new Outbox(directory, SEGMENT_SIZE);
+    assertThat(other.open(), is(nullValue()));
+
+    outbox.close();
+
+    List<OutboxEntry> pending;
+    pending = other.open();
+    other.close();
+
+    assertThat(pending.size(), is(1));
+    assertThat(pending.get(0).getMessage(), is(equalTo("first")));
+  }
+
+  @Test
+  public void keepsEntriesAcknowledgedAfterClosing() throws Exception {
+    Outbox outbox;
+    outbox = new Outbox(directory, SEGMENT_SIZE);
+    outbox.open();
+
+    OutboxEntry first;
+    first = outbox.append("test-project", WEBHOOK_URL, "general", "first");
+    outbox.close();
+    outbox.acknowledge(first);
+    outbox.compact();
+
+    assertThat(new Outbox(directory, SEGMENT_SIZE).open().size(), is(1));
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.delivery;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/** Tests for the RateLimiter class. */
+public class RateLimiterTest {
+  private static final String WEBHOOK_URL = "https://webhook/";
+
+  private long now;
+
+  private RateLimiter newRateLimiter(int rate, int burst) {
+    return new RateLimiter(rate, burst, () -> now);
+  }
+
+  private void advance(long millis) {
+    now += TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+
+  @Test
+  public void allowsBurstRightAway() throws Exception {
+    RateLimiter rateLimiter;
+    rateLimiter = newRateLimiter(60, 3);
+
+    assertThat(rateLimiter.reserve(WEBHOOK_URL), is(0L));
+    assertThat(rateLimiter.reserve(WEBHOOK_URL), is(0L));
+    assertThat(rateLimiter.reserve(WEBHOOK_URL), is(0L));
+  }
+
+  @Test
+  public void spacesReservationsBeyondBurst() throws Exception {
+    RateLimiter rateLimiter;
+    rateLimiter = newRateLimiter(60, 1);
+
+    assertThat(rateLimiter.reserve(WEBHOOK_URL), is(0L));
+    assertThat(rateLimiter.reserve(WEBHOOK_URL), is(1000L));
+    assertThat(rateLimiter.reserve(WEBHOOK_URL), is(2000L));
+  }
+
+  @Test
+  public void refillsOverTime() throws Exception {
+    RateLimiter rateLimiter;
+    rateLimiter = newRateLimiter(60, 1);
+
+    assertThat(rateLimiter.reserve(WEBHOOK_URL), is(0L));
+    advance(400);
+    assertThat(rateLimiter.reserve(WEBHOOK_URL), is(600L));
+    advance(1600);
+    assertThat(rateLimiter.reserve(WEBHOOK_URL), is(0L));
+  }
+
+  @Test
+  public void doesNotRefillBeyondBurst() throws Exception {
+    RateLimiter rateLimiter;
+    rateLimiter = newRateLimiter(60, 2);
+
+    advance(TimeUnit.HOURS.toMillis(1));
+    assertThat(rateLimiter.reserve(WEBHOOK_URL), is(0L));
+    assertThat(rateLimiter.reserve(WEBHOOK_URL), is(0L));
+    assertThat(rateLimiter.reserve(WEBHOOK_URL), is(1000L));
+  }
+
+  @Test
+  public void limitsWebhookUrlsSeparately() throws Exception {
+    RateLimiter rateLimiter;
+    rateLimiter = newRateLimiter(60, 1);
+
+    assertThat(rateLimiter.reserve(WEBHOOK_URL), is(0L));
+    assertThat(rateLimiter.reserve("https://other-webhook/"), is(0L));
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+/** Tests for the BlockKitWriter class. */
+public class BlockKitWriterTest {
+  @Test
+  public void writesPayloadWithoutBlocks() throws Exception {
+    StringBuilder out;
+    out = new StringBuilder();
+
+    new BlockKitWriter(out).begin("general").startText().text(" hello ").endText().end();
+
+    assertThat(out.toString(), is(equalTo("{\"channel\":\"#general\",\"text\":\"hello\"}")));
+  }
+
+  @Test
+  public void separatesBlocksAndElements() throws Exception {
+    StringBuilder out;
+    out = new StringBuilder();
+
+    BlockKitWriter writer;
+    writer = new BlockKitWriter(out);
+    writer.begin("general");
+    writer.startContext();
+    writer.startElement().text("a").endElement();
+    writer.startElement().text("b").endElement();
+    writer.endContext();
+    writer.startContext().startElement().text("c").endElement().endContext();
+    writer.end();
+
+    assertThat(
+        out.toString(),
+        is(
+            equalTo(
+                "{\"channel\":\"#general\",\"blocks\":["
+                    + "{\"type\":\"context\",\"elements\":["
+                    + "{\"type\":\"mrkdwn\",\"text\":\"a\"},{\"type\":\"mrkdwn\",\"text\":\"b\"}]},"
+                    + "{\"type\":\"context\",\"elements\":["
+                    + "{\"type\":\"mrkdwn\",\"text\":\"c\"}]}]}")));
+  }
+
+  @Test
+  public void escapesLinksAndText() throws Exception {
+    StringBuilder out;
+    out = new StringBuilder();
+
+    BlockKitWriter writer;
+    writer = new BlockKitWriter(out);
+    writer.begin("general");
+    writer.startSection().startLink("https://x/?a=1&b=2").text("a <b>").endLink().endSection();
+    writer.end();
+
+    assertThat(
+        out.toString(),
+        is(
+            equalTo(
+                "{\"channel\":\"#general\",\"blocks\":["
+                    + "{\"type\":\"section\",\"text\":{\"type\":\"mrkdwn\","
+                    + "\"text\":\"<https://x/?a=1&amp;b=2|a &lt;b&gt;>\"}}]}")));
+  }
+
+  /** Gets the texts of the sections of a payload, as Slack counts them once decoded. */
+  private static String sectionText(StringBuilder out, int index) {
+    JsonObject payload;
+    payload = new JsonParser().parse(out.toString()).getAsJsonObject();
+
+    return payload
+        .getAsJsonArray("blocks")
+        .get(index)
+        .getAsJsonObject()
+        .getAsJsonObject("text")
+        .get("text")
+        .getAsString();
+  }
+
+  @Test
+  public void cutsSectionsSlackWouldReject() throws Exception {
+    StringBuilder out;
+    out = new StringBuilder();
+
+    BlockKitWriter writer;
+    writer = new BlockKitWriter(out);
+    writer.begin("general");
+    writer.startSection().text(StringUtils.repeat("&", 1000)).raw("\\n").text("more");
+    writer.endSection();
+    writer.startSection().text("next").endSection();
+    writer.end();
+
+    String text;
+    text = sectionText(out, 0);
+
+    // Entities are never cut in half
+    assertThat(text.length() <= BlockKitWriter.MAX_SECTION_LENGTH, is(true));
+    assertThat(text.endsWith("&amp;" + MessageSummarizer.ELLIPSIS), is(true));
+    assertThat(sectionText(out, 1), is(equalTo("next")));
+  }
+
+  @Test
+  public void keepsSectionsWithinTheLimit() throws Exception {
+    String value;
+    value = StringUtils.repeat("\"", BlockKitWriter.MAX_SECTION_LENGTH);
+
+    StringBuilder out;
+    out = new StringBuilder();
+
+    // Escapes count as the single character they decode to
+    BlockKitWriter writer;
+    writer = new BlockKitWriter(out);
+    writer.begin("general").startSection().text(value).endSection().end();
+
+    assertThat(sectionText(out, 0), is(equalTo(value)));
+  }
+
+  @Test
+  public void closesBoldTextThatIsCut() throws Exception {
+    StringBuilder out;
+    out = new StringBuilder();
+
+    BlockKitWriter writer;
+    writer = new BlockKitWriter(out);
+    writer.begin("general");
+    writer.startSection().bold(StringUtils.repeat("\ud83d\ude00", 2000)).raw("\\n").text("x");
+    writer.endSection().end();
+
+    String text;
+    text = sectionText(out, 0);
+
+    assertThat(text.length() <= BlockKitWriter.MAX_SECTION_LENGTH, is(true));
+    assertThat(text.startsWith("*\ud83d\ude00"), is(true));
+    assertThat(text.endsWith("\ud83d\ude00" + MessageSummarizer.ELLIPSIS + "*"), is(true));
+  }
+}
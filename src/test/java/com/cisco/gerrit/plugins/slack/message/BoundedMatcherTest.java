@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.regex.Pattern;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+/** Tests for the BoundedMatcher class. */
+public class BoundedMatcherTest {
+  private static final String LARGE_MESSAGE = StringUtils.repeat("generated line\n", 10_000);
+
+  private static Pattern compile(String regex) {
+    return Pattern.compile(regex, Pattern.DOTALL);
+  }
+
+  @Test
+  public void matchesLikeTheRegexEngine() throws Exception {
+    assertThat(BoundedMatcher.matches(compile("^WIP.*"), "WIP: Test\n\nBody"), is(true));
+    assertThat(BoundedMatcher.matches(compile("^WIP.*"), "Test\n\nWIP"), is(false));
+    assertThat(BoundedMatcher.matches(compile("^jenkins.*"), "jenkins-ci"), is(true));
+  }
+
+  @Test
+  public void matchesLargeMessagesWithinTheBudget() throws Exception {
+    assertThat(BoundedMatcher.matches(compile(".*generated line\n"), LARGE_MESSAGE), is(true));
+  }
+
+  @Test(timeout = 5000)
+  public void givesUpOnCatastrophicBacktracking() throws Exception {
+    assertThat(BoundedMatcher.matches(compile("(.*)*WIP"), LARGE_MESSAGE), is(false));
+    assertThat(BoundedMatcher.matches(compile("(.*a){20}"), "WIP: Test"), is(false));
+  }
+
+  @Test
+  public void givesUpOnDeepRecursion() throws Exception {
+    assertThat(BoundedMatcher.matches(compile("(\\w+\\s?)+$"), LARGE_MESSAGE + "!"), is(false));
+  }
+
+  @Test
+  public void givesUpOnceTheBudgetIsSpent() throws Exception {
+    assertThat(BoundedMatcher.matches(compile("a*"), "aaaa", 4), is(true));
+    assertThat(BoundedMatcher.matches(compile("a*"), "aaaa", 3), is(false));
+  }
+}
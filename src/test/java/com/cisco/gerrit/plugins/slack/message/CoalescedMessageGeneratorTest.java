@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests for the CoalescedMessageGenerator class. */
+public class CoalescedMessageGeneratorTest {
+  private ProjectConfig mockConfig = mock(ProjectConfig.class);
+
+  private CoalescedMessageGenerator messageGenerator;
+
+  @Before
+  public void setup() throws Exception {
+    when(mockConfig.getMessageMaxBytes()).thenReturn(3000);
+    when(mockConfig.getMessageMaxLines()).thenReturn(30);
+
+    messageGenerator = new CoalescedMessageGenerator(mockConfig);
+  }
+
+  private void addReviewer(String name, boolean shouldPublish) {
+    add(name, ReviewerAddedMessageGenerator.ACTION, null, shouldPublish).setReviewerAdded(true);
+  }
+
+  private MessageTemplate add(String name, String action, String message, boolean shouldPublish) {
+    MessageTemplate template;
+    template = new MessageTemplate();
+    template.setChannel("general");
+    template.setName(name);
+    template.setAction(action);
+    template.setProject("test-project");
+    template.setBranch("master");
+    template.setUrl("https://change/");
+    template.setNumber(1234);
+    template.setTitle("Adds a \"test\" commit message");
+    template.setMessage(message);
+
+    MessageGenerator generator;
+    generator = mock(MessageGenerator.class);
+    when(generator.shouldPublish()).thenReturn(shouldPublish);
+    when(generator.generateTemplate()).thenReturn(template);
+
+    messageGenerator.add(generator);
+    return template;
+  }
+
+  @Test
+  public void mergesActionsAndReviewers() throws Exception {
+    add("Alice", "proposed", null, true);
+    addReviewer("Bob", true);
+    addReviewer("Carol", true);
+
+    assertThat(messageGenerator.shouldPublish(), is(true));
+
+    MessageTemplate template;
+    template = messageGenerator.generateTemplate();
+
+    assertThat(template.getName(), is(equalTo("Alice")));
+    assertThat(template.getAction(), is(equalTo("proposed, added reviewers Bob, Carol")));
+    assertThat(template.getNumber(), is(1234));
+    assertThat(template.getTitle(), is(equalTo("Adds a \\\"test\\\" commit message")));
+  }
+
+  @Test
+  public void namesOtherActors() throws Exception {
+    add("Alice", "proposed", null, true);
+    addReviewer("Bob", true);
+    add("CI", "commented on", "Build started", true);
+
+    MessageTemplate template;
+    template = messageGenerator.generateTemplate();
+
+    assertThat(template.getAction(), is(equalTo("proposed, CI commented on, added reviewer Bob")));
+    assertThat(template.getMessage(), is(equalTo("Build started")));
+  }
+
+  @Test
+  public void mergesReviewersAddedOnTheirOwn() throws Exception {
+    addReviewer("Bob", true);
+    addReviewer("Carol", true);
+
+    MessageTemplate template;
+    template = messageGenerator.generateTemplate();
+
+    assertThat(template.getName(), is(equalTo("Bob, Carol")));
+    assertThat(template.getAction(), is(equalTo("were added to review")));
+  }
+
+  @Test
+  public void skipsEventsThatShouldNotBePublished() throws Exception {
+    add("Alice", "proposed", null, true);
+    addReviewer("Bob", false);
+
+    MessageTemplate template;
+    template = messageGenerator.generateTemplate();
+
+    assertThat(template.getAction(), is(equalTo("proposed")));
+  }
+
+  @Test
+  public void shouldNotPublishWhenNoEventShould() throws Exception {
+    add("Alice", "proposed", null, false);
+
+    assertThat(messageGenerator.shouldPublish(), is(false));
+  }
+
+  @Test
+  public void boundsTheMergedMessages() throws Exception {
+    when(mockConfig.getMessageMaxLines()).thenReturn(3);
+
+    add("Alice", "commented on", "First comment", true);
+    add("CI", "commented on", "Build started", true);
+    add("CI", "commented on", "Build succeeded", true);
+
+    MessageTemplate template;
+    template = messageGenerator.generateTemplate();
+
+    assertThat(
+        template.getMessage(),
+        is(
+            equalTo(
+                "First comment\\n\\nBuild started"
+                    + MessageSummarizer.ELLIPSIS
+                    + "\\nhttps://change/")));
+  }
+
+  @Test
+  public void listsOnlyReviewerAddedEventsAsReviewers() throws Exception {
+    add("Alice", "proposed", null, true);
+    add("Bob", ReviewerAddedMessageGenerator.ACTION, null, true);
+
+    MessageTemplate template;
+    template = messageGenerator.generateTemplate();
+
+    assertThat(
+        template.getAction(), is(equalTo("proposed, Bob " + ReviewerAddedMessageGenerator.ACTION)));
+  }
+}
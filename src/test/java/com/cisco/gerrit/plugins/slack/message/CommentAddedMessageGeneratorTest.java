@@ -19,6 +19,7 @@ package com.cisco.gerrit.plugins.slack.message;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -283,4 +284,41 @@ public class CommentAddedMessageGeneratorTest {
 
     assertThat(actualResult, is(equalTo(expectedResult)));
   }
+
+  @Test
+  public void summarizesOversizedComments() throws Exception {
+    // Setup mocks
+    when(mockPluginConfig.getInt("message-max-lines", 30)).thenReturn(2);
+    ProjectConfig config = getConfig();
+    mockEvent.change = Suppliers.ofInstance(mockChange);
+    mockEvent.author = Suppliers.ofInstance(mockAccount);
+
+    StringBuilder log;
+    log = new StringBuilder("Build failed\n");
+    while (log.length() < 4 * 1024 * 1024) {
+      log.append("[INFO] Downloading artifacts\n");
+    }
+    mockEvent.comment = log.toString();
+
+    mockChange.number = 1234;
+    mockChange.project = "testproject";
+    mockChange.branch = "master";
+    mockChange.url = "https://change/";
+    mockChange.commitMessage = "This is the title\nThis is the message body.";
+
+    mockAccount.name = "Unit Tester";
+
+    // Test
+    MessageGenerator messageGenerator;
+    messageGenerator = MessageGeneratorFactory.newInstance(mockEvent, config);
+
+    String actualResult;
+    actualResult = messageGenerator.generate();
+
+    assertThat(
+        actualResult,
+        containsString(
+            "\"text\": \"Build failed\\n[INFO] Downloading artifacts\u2026\\nhttps://change/\""));
+    assertThat(actualResult.length() < 1024, is(true));
+  }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+/** Tests for the CompiledTemplate class. */
+public class CompiledTemplateTest {
+  @Test
+  public void rendersLikeStringFormat() throws Exception {
+    String template;
+    template = "{\"a\": \"%2$s\", \"b\": \"%1$s (%2$s) 100%%\"}";
+
+    assertThat(
+        CompiledTemplate.parse(template).render("one", "two"),
+        is(equalTo(String.format(template, "one", "two"))));
+  }
+
+  @Test
+  public void rendersTemplatesWithoutPlaceholders() throws Exception {
+    assertThat(CompiledTemplate.parse("{}").render(), is(equalTo("{}")));
+    assertThat(CompiledTemplate.parse("").render(), is(equalTo("")));
+  }
+
+  @Test
+  public void countsArguments() throws Exception {
+    assertThat(CompiledTemplate.parse("%3$s %1$s").getArity(), is(3));
+  }
+
+  @Test
+  public void rendersLargeMessagesRepeatedly() throws Exception {
+    CompiledTemplate template;
+    template = CompiledTemplate.parse("<%1$s>");
+
+    String large;
+    large = StringUtils.repeat('x', 100_000);
+
+    assertThat(template.render(large), is(equalTo("<" + large + ">")));
+    assertThat(template.render("small"), is(equalTo("<small>")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsOtherConversions() throws Exception {
+    CompiledTemplate.parse("%d");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsUnindexedPlaceholders() throws Exception {
+    CompiledTemplate.parse("%s");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsMissingArguments() throws Exception {
+    CompiledTemplate.parse("%2$s").render("one");
+  }
+}
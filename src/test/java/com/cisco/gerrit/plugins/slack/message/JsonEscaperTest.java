@@ -0,0 +1,188 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import org.junit.Test;
+
+/** Tests for the JsonEscaper class. */
+public class JsonEscaperTest {
+  /** Characters most likely to break the JSON or the Slack formatting. */
+  private static final char[] TRICKY = {
+    '"', '\\', '/', '\n', '\r', '\t', '\b', '\f', '\u0000', '\u001f', '\u007f', '&', '<', '>', ' ',
+    '%', '$', '\u2028', '\u2029', '\ud83d', '\ude00', '\ufeff', '\u00e9'
+  };
+
+  private static final int ITERATIONS = 10_000;
+
+  @Test
+  public void escapesJsonCharacters() throws Exception {
+    assertThat(
+        JsonEscaper.escape("a \"quote\" \\ back\nslash\ttab\u0001bell"),
+        is(equalTo("a \\\"quote\\\" \\\\ back\\nslash\\ttab\\u0001bell")));
+  }
+
+  @Test
+  public void escapesSlackControlCharacters() throws Exception {
+    assertThat(
+        JsonEscaper.escape("<!channel> & <@U123>"),
+        is(equalTo("&lt;!channel&gt; &amp; &lt;@U123&gt;")));
+  }
+
+  @Test
+  public void trimsWhitespace() throws Exception {
+    assertThat(JsonEscaper.escape(" \n\t title \r\n"), is(equalTo("title")));
+    assertThat(JsonEscaper.escape(" \n "), is(equalTo("")));
+    assertThat(JsonEscaper.escape(null), is(equalTo("")));
+  }
+
+  @Test
+  public void keepsSurrogatePairs() throws Exception {
+    assertThat(JsonEscaper.escape("\ud83d\ude00"), is(equalTo("\ud83d\ude00")));
+    assertThat(JsonEscaper.escape("a\ud83db"), is(equalTo("a\\ud83db")));
+    assertThat(JsonEscaper.escape("\ude00\ud83d"), is(equalTo("\\ude00\\ud83d")));
+  }
+
+  @Test
+  public void appendsToTheBuilder() throws Exception {
+    StringBuilder builder;
+    builder = new StringBuilder("\"");
+    JsonEscaper.append(builder, " \"x\" ");
+    builder.append('"');
+
+    assertThat(builder.toString(), is(equalTo("\"\\\"x\\\"\"")));
+  }
+
+  @Test
+  public void alwaysProducesValidJsonStrings() throws Exception {
+    Random random;
+    random = new Random(42);
+
+    for (int i = 0; i < ITERATIONS; i++) {
+      String value;
+      value = randomString(random);
+
+      String escaped;
+      escaped = JsonEscaper.escape(value);
+
+      for (int c = 0; c < escaped.length(); c++) {
+        assertTrue("Unescaped control character in " + escaped, escaped.charAt(c) >= ' ');
+      }
+      assertThat(parseString("\"" + escaped + "\""), is(equalTo(expected(value))));
+    }
+  }
+
+  @Test
+  public void alwaysRendersValidJsonMessages() throws Exception {
+    Random random;
+    random = new Random(1234);
+
+    for (int i = 0; i < ITERATIONS / 10; i++) {
+      String channel;
+      channel = randomString(random);
+      String title;
+      title = randomString(random);
+      String message;
+      message = randomString(random);
+
+      MessageTemplate template;
+      template = new MessageTemplate();
+      template.setChannel(channel);
+      template.setName(randomString(random));
+      template.setAction(randomString(random));
+      template.setProject(randomString(random));
+      template.setBranch(randomString(random));
+      template.setUrl(randomString(random));
+      template.setNumber(random.nextInt());
+      template.setTitle(title);
+      template.setMessage(message);
+
+      JsonObject json;
+      json = parse(template.render()).getAsJsonObject();
+
+      JsonObject attachment;
+      attachment = json.getAsJsonArray("attachments").get(0).getAsJsonObject();
+
+      assertThat(json.get("channel").getAsString(), is(equalTo("#" + expected(channel))));
+      assertThat(attachment.get("title").getAsString(), is(equalTo(expected(title))));
+      assertThat(attachment.get("text").getAsString(), is(equalTo(expected(message))));
+    }
+  }
+
+  private static String randomString(Random random) {
+    int length;
+    length = random.nextInt(64);
+
+    StringBuilder builder;
+    builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      switch (random.nextInt(3)) {
+        case 0:
+          builder.append(TRICKY[random.nextInt(TRICKY.length)]);
+          break;
+        case 1:
+          builder.append((char) random.nextInt(0x80));
+          break;
+        default:
+          builder.append((char) random.nextInt(Character.MAX_VALUE + 1));
+      }
+    }
+    return builder.toString();
+  }
+
+  /** The value expected back from the JSON, lone surrogates being kept as is. */
+  private static String expected(String value) {
+    return value.trim().replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+  }
+
+  private static String parseString(String json) throws IOException {
+    JsonReader reader;
+    reader = new JsonReader(new StringReader(json));
+    reader.setLenient(false);
+
+    String result;
+    result = reader.nextString();
+    assertThat(reader.peek(), is(JsonToken.END_DOCUMENT));
+
+    return result;
+  }
+
+  private static JsonElement parse(String json) throws IOException {
+    JsonReader reader;
+    reader = new JsonReader(new StringReader(json));
+    reader.setLenient(false);
+
+    JsonElement result;
+    result = new Gson().getAdapter(JsonElement.class).read(reader);
+    assertThat(reader.peek(), is(JsonToken.END_DOCUMENT));
+
+    return result;
+  }
+}
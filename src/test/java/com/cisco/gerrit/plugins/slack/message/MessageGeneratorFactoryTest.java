@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.cisco.gerrit.plugins.slack.config.ProjectConfig;
+import com.google.gerrit.server.events.ChangeMergedEvent;
+import com.google.gerrit.server.events.CommentAddedEvent;
+import com.google.gerrit.server.events.Event;
+import com.google.gerrit.server.events.PatchSetCreatedEvent;
+import com.google.gerrit.server.events.PrivateStateChangedEvent;
+import com.google.gerrit.server.events.RefUpdatedEvent;
+import com.google.gerrit.server.events.ReviewerAddedEvent;
+import com.google.gerrit.server.events.WorkInProgressStateChangedEvent;
+import org.junit.Test;
+
+/** Tests the event class dispatch of the MessageGeneratorFactory class. */
+public class MessageGeneratorFactoryTest {
+  private ProjectConfig mockConfig = mock(ProjectConfig.class);
+
+  private MessageGenerator newInstance(Class<? extends Event> eventClass) {
+    // Mocks are subclasses of the event class, so this also covers the superclass lookup
+    return MessageGeneratorFactory.newInstance(mock(eventClass), mockConfig);
+  }
+
+  @Test
+  public void dispatchesPatchSetCreatedEvents() throws Exception {
+    assertThat(
+        newInstance(PatchSetCreatedEvent.class) instanceof PatchSetCreatedMessageGenerator,
+        is(true));
+  }
+
+  @Test
+  public void dispatchesChangeMergedEvents() throws Exception {
+    assertThat(
+        newInstance(ChangeMergedEvent.class) instanceof ChangeMergedMessageGenerator, is(true));
+  }
+
+  @Test
+  public void dispatchesCommentAddedEvents() throws Exception {
+    assertThat(
+        newInstance(CommentAddedEvent.class) instanceof CommentAddedMessageGenerator, is(true));
+  }
+
+  @Test
+  public void dispatchesReviewerAddedEvents() throws Exception {
+    assertThat(
+        newInstance(ReviewerAddedEvent.class) instanceof ReviewerAddedMessageGenerator, is(true));
+  }
+
+  @Test
+  public void dispatchesWorkInProgressStateChangedEvents() throws Exception {
+    assertThat(
+        newInstance(WorkInProgressStateChangedEvent.class)
+            instanceof WorkInProgressStateChangedGenerator,
+        is(true));
+  }
+
+  @Test
+  public void dispatchesPrivateStateChangedEvents() throws Exception {
+    assertThat(
+        newInstance(PrivateStateChangedEvent.class) instanceof PrivateStateChangedGenerator,
+        is(true));
+  }
+
+  @Test
+  public void dispatchesUnsupportedEvents() throws Exception {
+    assertThat(newInstance(RefUpdatedEvent.class) instanceof UnsupportedMessageGenerator, is(true));
+    assertThat(MessageGeneratorFactory.isSupported(mock(RefUpdatedEvent.class)), is(false));
+  }
+}
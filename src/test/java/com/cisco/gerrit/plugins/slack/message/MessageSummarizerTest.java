@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+/** Tests for the MessageSummarizer class. */
+public class MessageSummarizerTest {
+  private static final String URL = "https://change/";
+
+  @Test
+  public void keepsTextsWithinTheLimits() throws Exception {
+    String text;
+    text = "first line\nsecond line";
+
+    assertThat(MessageSummarizer.summarize(text, 100, 2, URL), is(sameInstance(text)));
+    assertThat(MessageSummarizer.summarize(null, 100, 2, URL), is(nullValue()));
+  }
+
+  @Test
+  public void cutsAfterTheLastLine() throws Exception {
+    assertThat(
+        MessageSummarizer.summarize("one\ntwo \nthree\nfour", 100, 2, URL),
+        is(equalTo("one\ntwo\u2026\n" + URL)));
+  }
+
+  @Test
+  public void cutsAtTheByteLimit() throws Exception {
+    assertThat(MessageSummarizer.summarize("0123456789", 4, 10, null), is(equalTo("0123\u2026")));
+  }
+
+  @Test
+  public void cutsInBetweenCodePoints() throws Exception {
+    // 2, 3 and 4 bytes long code points
+    String text;
+    text = "\u00e9\u20ac\ud83d\ude00\u00e9";
+
+    for (int maxBytes = 0; maxBytes <= 11; maxBytes++) {
+      String summary;
+      summary = MessageSummarizer.summarize(text, maxBytes, 1, null);
+
+      String kept;
+      kept =
+          summary.endsWith(MessageSummarizer.ELLIPSIS)
+              ? summary.substring(0, summary.length() - 1)
+              : summary;
+
+      assertThat(kept.getBytes(StandardCharsets.UTF_8).length <= maxBytes, is(true));
+      assertThat(text.startsWith(kept), is(true));
+      assertThat(
+          kept.isEmpty() || !Character.isHighSurrogate(kept.charAt(kept.length() - 1)), is(true));
+    }
+  }
+
+  @Test
+  public void getsTheFirstLineAsTitle() throws Exception {
+    assertThat(MessageSummarizer.title("Fix it\n\nThe body.", 100), is(equalTo("Fix it")));
+    assertThat(MessageSummarizer.title("Fix it", 100), is(equalTo("Fix it")));
+    assertThat(MessageSummarizer.title("Fix everything\nbody", 4), is(equalTo("Fix\u2026")));
+    assertThat(MessageSummarizer.title(null, 100), is(nullValue()));
+  }
+
+  @Test
+  public void onlyScansThePrefixItNeeds() throws Exception {
+    StringBuilder text;
+    text = new StringBuilder();
+    while (text.length() < 8 * 1024 * 1024) {
+      text.append("line\n");
+    }
+
+    assertThat(MessageSummarizer.cut(text.toString(), 1000, 3), is(equalTo(14)));
+  }
+}
@@ -17,6 +17,16 @@
 
 package com.cisco.gerrit.plugins.slack.message;
 
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import com.cisco.gerrit.plugins.slack.util.ResourceHelper;
+import com.cisco.gerrit.plugins.slack.util.Utf8Buffer;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.util.Collections;
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
 public class MessageTemplateTest {
@@ -33,5 +43,166 @@ public class MessageTemplateTest {
     template.setUrl("https://change/");
     template.setNumber(1234);
     template.setMessage("This is a really great commit.");
+
+    String expected;
+    expected =
+        String.format(
+            ResourceHelper.loadNamedResourceAsString(MessageTemplate.TEMPLATE_NAME),
+            "testchannel",
+            "Unit Tester",
+            "proposed",
+            "project",
+            "master",
+            "https://change/",
+            1234,
+            "",
+            "This is a really great commit.",
+            "good");
+
+    assertThat(template.render(), is(equalTo(expected)));
+  }
+
+  @Test
+  public void rendersWithProjectLayout() throws Exception {
+    MessageTemplate template;
+    template = new MessageTemplate();
+
+    template.setLayout(CompiledTemplate.parse("{\"text\": \"%2$s %3$s change %7$s\"}"));
+    template.setName("Unit Tester");
+    template.setAction("merged");
+    template.setNumber(1234);
+
+    assertThat(template.render(), is(equalTo("{\"text\": \"Unit Tester merged change 1234\"}")));
+    assertThat(
+        MessageTemplate.coalesce(Collections.singletonList(template), 3000, 30).render(),
+        is(equalTo("{\"text\": \"Unit Tester merged change 1234\"}")));
+  }
+
+  @Test
+  public void rendersBlocks() throws Exception {
+    MessageTemplate template;
+    template = new MessageTemplate();
+
+    template.setFormat(MessageFormat.BLOCKS);
+    template.setChannel("testchannel");
+    template.setName("Unit Tester");
+    template.setAction("proposed");
+    template.setProject("project");
+    template.setBranch("master");
+    template.setUrl("https://change/");
+    template.setNumber(1234);
+    template.setTitle("Fix <b>");
+    template.setMessage("This is a \"really\" great commit.");
+
+    String expected;
+    expected =
+        "{\"channel\":\"#testchannel\","
+            + "\"text\":\"Unit Tester proposed project (master) https://change/: Fix &lt;b&gt;\","
+            + "\"blocks\":["
+            + "{\"type\":\"section\",\"text\":{\"type\":\"mrkdwn\","
+            + "\"text\":\"Unit Tester proposed <https://change/|change 1234>\"}},"
+            + "{\"type\":\"section\",\"text\":{\"type\":\"mrkdwn\","
+            + "\"text\":\"*Fix &lt;b&gt;*\\nThis is a \\\"really\\\" great commit.\"}},"
+            + "{\"type\":\"context\",\"elements\":["
+            + "{\"type\":\"mrkdwn\",\"text\":\"project\"},"
+            + "{\"type\":\"mrkdwn\",\"text\":\"master\"}]}]}";
+
+    assertThat(template.render(), is(equalTo(expected)));
+
+    Utf8Buffer buffer;
+    buffer = template.renderUtf8();
+    assertThat(buffer.toString(), is(equalTo(expected)));
+    buffer.release();
+  }
+
+  @Test
+  public void rendersBlocksWithoutTitleOrMessage() throws Exception {
+    MessageTemplate template;
+    template = new MessageTemplate();
+
+    template.setFormat(MessageFormat.BLOCKS);
+    template.setChannel("testchannel");
+    template.setName("Unit Tester");
+    template.setAction("merged");
+    template.setProject("project");
+    template.setBranch("master");
+    template.setUrl("https://change/");
+    template.setNumber(1234);
+
+    JsonObject payload;
+    payload = new JsonParser().parse(template.render()).getAsJsonObject();
+
+    // Slack rejects sections with an empty text
+    assertThat(payload.getAsJsonArray("blocks").size(), is(equalTo(2)));
+    assertThat(
+        MessageTemplate.coalesce(Collections.singletonList(template), 3000, 30).render(),
+        is(equalTo(template.render())));
+  }
+
+  @Test
+  public void skipsBlankContextElements() throws Exception {
+    MessageTemplate template;
+    template = new MessageTemplate();
+
+    template.setFormat(MessageFormat.BLOCKS);
+    template.setChannel("testchannel");
+    template.setName("Unit Tester");
+    template.setAction("merged");
+    template.setProject("project");
+    template.setBranch(" ");
+
+    JsonObject payload;
+    payload = new JsonParser().parse(template.render()).getAsJsonObject();
+
+    assertThat(
+        payload.getAsJsonArray("blocks").get(1).getAsJsonObject().getAsJsonArray("elements").size(),
+        is(equalTo(1)));
+
+    // Without any element, the context block itself is left out
+    template.setProject(null);
+    payload = new JsonParser().parse(template.render()).getAsJsonObject();
+
+    assertThat(payload.getAsJsonArray("blocks").size(), is(equalTo(1)));
+  }
+
+  @Test
+  public void cutsLongMessagesToTheSectionLength() throws Exception {
+    MessageTemplate template;
+    template = new MessageTemplate();
+
+    template.setFormat(MessageFormat.BLOCKS);
+    template.setChannel("testchannel");
+    template.setName("Unit Tester");
+    template.setAction("commented on");
+    template.setTitle("Fix <b>");
+    template.setMessage(StringUtils.repeat("x < y ", 500));
+
+    JsonObject payload;
+    payload = new JsonParser().parse(template.render()).getAsJsonObject();
+
+    String text;
+    text =
+        payload
+            .getAsJsonArray("blocks")
+            .get(1)
+            .getAsJsonObject()
+            .getAsJsonObject("text")
+            .get("text")
+            .getAsString();
+
+    assertThat(text.length() <= BlockKitWriter.MAX_SECTION_LENGTH, is(true));
+    assertThat(text.endsWith(MessageSummarizer.ELLIPSIS), is(true));
+  }
+
+  @Test
+  public void prefersProjectLayoutOverBlocks() throws Exception {
+    MessageTemplate template;
+    template = new MessageTemplate();
+
+    template.setFormat(MessageFormat.BLOCKS);
+    template.setLayout(CompiledTemplate.parse("{\"text\": \"%2$s\"}"));
+    template.setName("Unit Tester");
+
+    assertThat(template.render(), is(equalTo("{\"text\": \"Unit Tester\"}")));
   }
 }
@@ -33,6 +33,7 @@ import com.google.gerrit.server.data.AccountAttribute;
 import com.google.gerrit.server.data.ChangeAttribute;
 import com.google.gerrit.server.data.PatchSetAttribute;
 import com.google.gerrit.server.events.PatchSetCreatedEvent;
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
 /** Tests for the PatchSetCreatedMessageGeneratorTest class. */
@@ -198,6 +199,32 @@ public class PatchSetCreatedMessageGeneratorTest {
     assertThat(messageGenerator.shouldPublish(), is(true));
   }
 
+  @Test
+  public void publishesWhenIgnorePatternIsInvalid() throws Exception {
+    ProjectConfig config = getConfig("(unclosed" /* ignore */);
+    mockEvent.change = Suppliers.ofInstance(mockChange);
+    mockChange.commitMessage = "(unclosed";
+
+    // Test
+    MessageGenerator messageGenerator;
+    messageGenerator = MessageGeneratorFactory.newInstance(mockEvent, config);
+
+    assertThat(messageGenerator.shouldPublish(), is(true));
+  }
+
+  @Test(timeout = 5000)
+  public void publishesWhenIgnorePatternBacktracksCatastrophically() throws Exception {
+    ProjectConfig config = getConfig("(.*)*WIP" /* ignore */);
+    mockEvent.change = Suppliers.ofInstance(mockChange);
+    mockChange.commitMessage = StringUtils.repeat("generated line\n", 10_000);
+
+    // Test
+    MessageGenerator messageGenerator;
+    messageGenerator = MessageGeneratorFactory.newInstance(mockEvent, config);
+
+    assertThat(messageGenerator.shouldPublish(), is(true));
+  }
+
   @Test
   public void doesNotPublishWhenTrivialRebase() throws Exception {
     // Setup mocks
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.message;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.gerrit.server.project.ProjectState;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.TreeFormatter;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests for the TemplateCache class. */
+public class TemplateCacheTest {
+  private static final String TEMPLATE_NAME = "slack.json";
+  private static final String TEMPLATE = "{\"text\": \"%2$s %3$s %6$s\"}";
+
+  private GitRepositoryManager mockRepositoryManager = mock(GitRepositoryManager.class);
+  private ProjectCache mockProjectCache = mock(ProjectCache.class);
+
+  private Project.NameKey parent = Project.nameKey("parent");
+  private Project.NameKey child = Project.nameKey("child");
+  private Project.NameKey other = Project.nameKey("other");
+
+  private TemplateCache templateCache;
+
+  @Before
+  public void setup() throws Exception {
+    ProjectState parentState;
+    parentState = mockProject(parent);
+
+    mockProject(child, parentState);
+    mockProject(other);
+
+    templateCache =
+        new TemplateCache(
+            CacheBuilder.newBuilder().build(), mockRepositoryManager, mockProjectCache);
+  }
+
+  private ProjectState mockProject(Project.NameKey name, ProjectState... parents) throws Exception {
+    ProjectState state;
+    state = mock(ProjectState.class);
+    when(state.getNameKey()).thenReturn(name);
+
+    List<ProjectState> tree;
+    tree = new ArrayList<>();
+    tree.add(state);
+    tree.addAll(Arrays.asList(parents));
+    when(state.tree()).thenReturn(tree);
+    when(mockProjectCache.get(name)).thenReturn(Optional.of(state));
+
+    InMemoryRepository repository;
+    repository = new InMemoryRepository(new DfsRepositoryDescription(name.get()));
+    when(mockRepositoryManager.openRepository(name))
+        .thenAnswer(
+            invocation -> {
+              // Every caller closes the repository
+              repository.incrementOpen();
+              return repository;
+            });
+
+    return state;
+  }
+
+  private void storeTemplate(Project.NameKey project, String fileName, String content)
+      throws Exception {
+    InMemoryRepository repository;
+    repository = (InMemoryRepository) mockRepositoryManager.openRepository(project);
+
+    try (ObjectInserter inserter = repository.newObjectInserter()) {
+      ObjectId blob;
+      blob = inserter.insert(Constants.OBJ_BLOB, content.getBytes(StandardCharsets.UTF_8));
+
+      TreeFormatter tree;
+      tree = new TreeFormatter();
+      tree.append(fileName, FileMode.REGULAR_FILE, blob);
+
+      PersonIdent ident;
+      ident = new PersonIdent("Test", "test@example.com");
+
+      CommitBuilder commit;
+      commit = new CommitBuilder();
+      commit.setTreeId(inserter.insert(tree));
+      commit.setAuthor(ident);
+      commit.setCommitter(ident);
+      commit.setMessage("Add template");
+
+      ObjectId commitId;
+      commitId = inserter.insert(commit);
+      inserter.flush();
+
+      RefUpdate update;
+      update = repository.updateRef(RefNames.REFS_CONFIG);
+      update.setNewObjectId(commitId);
+      update.forceUpdate();
+    }
+  }
+
+  @Test
+  public void loadsTemplateOfProject() throws Exception {
+    storeTemplate(other, TEMPLATE_NAME, TEMPLATE);
+
+    CompiledTemplate template;
+    template = templateCache.get(other, TEMPLATE_NAME);
+
+    assertThat(
+        template.render("general", "Alice", "merged", "p", "b", "https://c/1"),
+        is(equalTo("{\"text\": \"Alice merged https://c/1\"}")));
+  }
+
+  @Test
+  public void inheritsTemplateOfParent() throws Exception {
+    storeTemplate(parent, TEMPLATE_NAME, TEMPLATE);
+
+    assertThat(
+        templateCache.get(child, TEMPLATE_NAME),
+        is(sameInstance(templateCache.get(parent, TEMPLATE_NAME))));
+  }
+
+  @Test
+  public void compilesEachBlobOnce() throws Exception {
+    storeTemplate(parent, TEMPLATE_NAME, TEMPLATE);
+    storeTemplate(other, "other.json", TEMPLATE);
+
+    assertThat(
+        templateCache.get(parent, TEMPLATE_NAME),
+        is(sameInstance(templateCache.get(other, "other.json"))));
+  }
+
+  @Test
+  public void fallsBackWhenTemplateIsMissing() throws Exception {
+    storeTemplate(other, "other.json", TEMPLATE);
+
+    assertThat(templateCache.get(other, TEMPLATE_NAME), is(nullValue()));
+    assertThat(templateCache.get(child, TEMPLATE_NAME), is(nullValue()));
+    assertThat(templateCache.get(Project.nameKey("unknown"), TEMPLATE_NAME), is(nullValue()));
+  }
+
+  @Test
+  public void fallsBackWhenTemplateIsNotJson() throws Exception {
+    storeTemplate(other, TEMPLATE_NAME, "{\"text\": %2$s}");
+
+    assertThat(templateCache.get(other, TEMPLATE_NAME), is(nullValue()));
+  }
+
+  @Test
+  public void fallsBackWhenTemplateHasUnknownPlaceholders() throws Exception {
+    storeTemplate(other, TEMPLATE_NAME, "{\"text\": \"%11$s\"}");
+    storeTemplate(parent, TEMPLATE_NAME, "{\"text\": \"%d\"}");
+
+    assertThat(templateCache.get(other, TEMPLATE_NAME), is(nullValue()));
+    assertThat(templateCache.get(parent, TEMPLATE_NAME), is(nullValue()));
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Cisco Systems, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package com.cisco.gerrit.plugins.slack.util;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+/** Tests for the Utf8Buffer class. */
+public class Utf8BufferTest {
+  @Test
+  public void encodesLikeTheJdk() throws Exception {
+    Random random;
+    random = new Random(42);
+
+    for (int i = 0; i < 10_000; i++) {
+      char[] chars;
+      chars = new char[random.nextInt(32)];
+      for (int c = 0; c < chars.length; c++) {
+        // Mostly ASCII, with some two and three byte chars and surrogates, paired or not
+        chars[c] =
+            (char)
+                (random.nextBoolean()
+                    ? random.nextInt(0x80)
+                    : random.nextInt(Character.MAX_VALUE + 1));
+      }
+
+      String value;
+      value = new String(chars);
+
+      Utf8Buffer buffer;
+      buffer = Utf8Buffer.encode(value);
+
+      assertArrayEquals(
+          value.getBytes(StandardCharsets.UTF_8), Arrays.copyOf(buffer.array(), buffer.length()));
+      buffer.release();
+    }
+  }
+
+  @Test
+  public void encodesSupplementaryCharacters() throws Exception {
+    Utf8Buffer buffer;
+    buffer = Utf8Buffer.encode("caf\u00e9 \ud83d\ude00");
+
+    assertThat(buffer.length(), is(10));
+    assertThat(buffer.toString(), is(equalTo("caf\u00e9 \ud83d\ude00")));
+  }
+
+  @Test
+  public void reusesReleasedArrays() throws Exception {
+    Utf8Buffer first;
+    first = Utf8Buffer.encode("first");
+
+    int pooled;
+    pooled = Utf8Buffer.pooled();
+
+    first.release();
+    first.release();
+    assertThat(Utf8Buffer.pooled(), is(pooled + 1));
+
+    Utf8Buffer second;
+    second = Utf8Buffer.encode("second");
+    assertThat(Utf8Buffer.pooled(), is(pooled));
+    assertThat(second.array().length, is(Utf8Buffer.MIN_POOLED_SIZE));
+    assertThat(second.toString(), is(equalTo("second")));
+  }
+
+  @Test
+  public void borrowsTheSmallestArrayFittingTheMessage() throws Exception {
+    assertThat(arrayLength(0), is(Utf8Buffer.MIN_POOLED_SIZE));
+    assertThat(arrayLength(300), is(Utf8Buffer.MIN_POOLED_SIZE));
+    assertThat(arrayLength(Utf8Buffer.MIN_POOLED_SIZE), is(Utf8Buffer.MIN_POOLED_SIZE));
+    assertThat(arrayLength(Utf8Buffer.MIN_POOLED_SIZE + 1), is(2 * Utf8Buffer.MIN_POOLED_SIZE));
+    assertThat(arrayLength(5000), is(8 * 1024));
+    assertThat(arrayLength(Utf8Buffer.MAX_POOLED_SIZE), is(Utf8Buffer.MAX_POOLED_SIZE));
+  }
+
+  private static int arrayLength(int length) {
+    Utf8Buffer buffer;
+    buffer = Utf8Buffer.encode(StringUtils.repeat('x', length));
+
+    int arrayLength;
+    arrayLength = buffer.array().length;
+    buffer.release();
+
+    return arrayLength;
+  }
+
+  @Test
+  public void doesNotPoolLargeArrays() throws Exception {
+    int pooled;
+    pooled = Utf8Buffer.pooled();
+
+    Utf8Buffer buffer;
+    buffer = Utf8Buffer.encode(StringUtils.repeat('x', Utf8Buffer.MAX_POOLED_SIZE + 1));
+    assertThat(buffer.array().length, is(Utf8Buffer.MAX_POOLED_SIZE + 1));
+    buffer.release();
+
+    assertThat(Utf8Buffer.pooled(), is(pooled));
+  }
+
+  @Test
+  public void doesNotPoolWrappedArrays() throws Exception {
+    int pooled;
+    pooled = Utf8Buffer.pooled();
+
+    Utf8Buffer buffer;
+    buffer = Utf8Buffer.wrap("wrapped".getBytes(StandardCharsets.UTF_8));
+    assertThat(buffer.toString(), is(equalTo("wrapped")));
+    buffer.release();
+
+    assertThat(Utf8Buffer.pooled(), is(pooled));
+  }
+
+  @Test
+  public void doesNotPoolDetachedArrays() throws Exception {
+    Utf8Buffer buffer;
+    buffer = Utf8Buffer.encode("in flight");
+
+    int pooled;
+    pooled = Utf8Buffer.pooled();
+
+    buffer.detach();
+    buffer.release();
+
+    assertThat(Utf8Buffer.pooled(), is(pooled));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void cannotBeUsedOnceReleased() throws Exception {
+    Utf8Buffer buffer;
+    buffer = Utf8Buffer.encode("released");
+    buffer.release();
+
+    buffer.array();
+  }
+}